@@ -0,0 +1,47 @@
+package evolutionary;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one whole generation of population, which keeps evolving between calls as in a real run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class GenerationBenchmark {
+    private static final int DIM = 8;
+    private static final double MUTATION_PROBABILITY = 0.5;
+
+    @Param({"100", "1000", "10000"})
+    private int mi;
+
+    @Param({"1", "1.5", "7"})
+    private double lambdaRatio;
+
+    @Param({"true", "false"})
+    private boolean isWedding;
+
+    @Param({"8"})
+    private int funcNum;
+
+    private int lambda;
+    private Population population;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        lambda = (int) (mi * lambdaRatio);
+        Evolution evolution = new Evolution(1, 1, DIM, funcNum, 0, MUTATION_PROBABILITY);
+        population = new Population(evolution, mi, DIM, -100, 100, 10, evolution.getObjectiveFunction());
+    }
+
+    @Benchmark
+    public Population performEvolution() {
+        return population.performEvolution(lambda, isWedding, MUTATION_PROBABILITY);
+    }
+
+}
@@ -0,0 +1,66 @@
+package evolutionary;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of objective functions, for one individual and for batch of rows evaluated at once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class ObjectiveFunctionBenchmark {
+    private static final int ROWS = 1024;
+
+    @Param({"1", "2", "3", "4", "6", "7", "8", "9", "12", "23", "27"})
+    private int funcNum;
+
+    @Param({"2", "8", "32"})
+    private int dim;
+
+    private ObjectiveFunction function;
+    private Individual individual;
+    private double[] x;
+    private int[] rows;
+    private double[] values;
+
+    @Setup
+    public void setUp() {
+        Evolution evolution = new Evolution(1, 1, dim, funcNum, 0, 0.5);
+        function = evolution.getObjectiveFunction();
+
+        Random rand = new Random(42);
+        PopulationStore store = new PopulationStore(dim, ROWS);
+        store.setSize(ROWS);
+        x = store.getX();
+        for (int i = 0; i < x.length; ++i) {
+            x[i] = rand.nextDouble() * 200 - 100;
+        }
+        individual = new Individual(store, 0);
+
+        rows = new int[ROWS];
+        for (int i = 0; i < ROWS; ++i) {
+            rows[i] = i;
+        }
+        values = new double[ROWS];
+    }
+
+    @Benchmark
+    public double countObjFuncVal() {
+        return individual.countObjFuncVal(function);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void evaluateBatch(Blackhole blackhole) {
+        function.evaluateBatch(x, dim, rows, 0, ROWS, values);
+        blackhole.consume(values);
+    }
+
+}
@@ -0,0 +1,91 @@
+package evolutionary;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of single operators of one generation. Operators which change population or children first bring population
+ * back to its initial rows within the measured call, reusing the same stores, and {@link #restore()} measures restoring
+ * alone so that it can be subtracted. Per-invocation setup is avoided, its overhead distorts timings of microseconds.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class OperatorBenchmark {
+    private static final int DIM = 8;
+    private static final double MUTATION_PROBABILITY = 0.5;
+
+    @Param({"100", "1000", "10000"})
+    private int mi;
+
+    @Param({"1", "1.5", "7"})
+    private double lambdaRatio;
+
+    @Param({"8"})
+    private int funcNum;
+
+    private int lambda;
+    private PopulationStore initial;
+    private Population population;
+    private Population children;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        lambda = (int) (mi * lambdaRatio);
+        Evolution evolution = new Evolution(1, 1, DIM, funcNum, 0, MUTATION_PROBABILITY);
+        population = new Population(evolution, mi, DIM, -100, 100, 10, evolution.getObjectiveFunction());
+        initial = new PopulationStore(DIM, mi);
+        initial.setSize(mi);
+        for (int i = 0; i < mi; ++i) {
+            initial.copyRow(population.getStore(), i, i);
+        }
+    }
+
+    @Benchmark
+    public Population createChildrenPopulation() {
+        return population.createChildrenPopulation(lambda, MUTATION_PROBABILITY);
+    }
+
+    @Benchmark
+    public Population restore() {
+        restoreRows();
+        return children;
+    }
+
+    @Benchmark
+    public Population performMutations() {
+        restoreRows();
+        children.performMutations(MUTATION_PROBABILITY);
+        return children;
+    }
+
+    @Benchmark
+    public Population performWedding() {
+        population.performWedding();
+        return population;
+    }
+
+    @Benchmark
+    public Population limitPopulation() {
+        restoreRows();
+        return population.limitPopulation(children);
+    }
+
+    /**
+     * Brings population back to its initial rows and creates children which still share genomes of their parents.
+     */
+    private void restoreRows() {
+        PopulationStore store = population.getStore();
+        store.setSize(mi);
+        store.makeWritable(true);
+        for (int i = 0; i < mi; ++i) {
+            store.copyRow(initial, i, i);
+        }
+        children = population.createChildrenPopulation(lambda, 0);
+    }
+
+}
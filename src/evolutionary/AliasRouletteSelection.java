@@ -0,0 +1,77 @@
+package evolutionary;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Roulette wheel selection sampled with Walker's alias table (Vose's construction).
+ * Probabilities are the same as in {@link RouletteSelection}, table is built in O(n) and every parent is drawn in O(1).
+ * Children are not ordered by parent.
+ */
+public final class AliasRouletteSelection implements SelectionStrategy {
+    private double[] probability = new double[0];
+    private int[] alias = new int[0];
+    private int[] small = new int[0];
+    private int[] large = new int[0];
+
+    @Override
+    public int select(double[] objFuncVal, int size, int count, RandomGenerator rand, int[] parents) {
+        if (probability.length < size) {
+            probability = new double[size];
+            alias = new int[size];
+            small = new int[size];
+            large = new int[size];
+        }
+
+        double functionValueSum = 0;
+        for (int i = 0; i < size; ++i) {
+            functionValueSum += 1.0 / objFuncVal[i];
+        }
+
+        // Scale probabilities so that their mean is 1 and split them to small and large ones
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < size; ++i) {
+            probability[i] = size / (objFuncVal[i] * functionValueSum);
+            if (probability[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        // Fill each small column up to 1 with part of a large one
+        while (smallCount > 0 && largeCount > 0) {
+            int s = small[--smallCount];
+            int l = large[largeCount - 1];
+
+            alias[s] = l;
+            probability[l] = (probability[l] + probability[s]) - 1;
+
+            if (probability[l] < 1) {
+                --largeCount;
+                small[smallCount++] = l;
+            }
+        }
+
+        // Remaining columns are full up to rounding errors
+        while (largeCount > 0) {
+            probability[large[--largeCount]] = 1;
+        }
+        while (smallCount > 0) {
+            probability[small[--smallCount]] = 1;
+        }
+
+        for (int k = 0; k < count; ++k) {
+            int column = rand.nextInt(size);
+            parents[k] = rand.nextDouble() < probability[column] ? column : alias[column];
+        }
+
+        return count;
+    }
+
+    @Override
+    public SelectionStrategy copy() {
+        return new AliasRouletteSelection();
+    }
+
+}
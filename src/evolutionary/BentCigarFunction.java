@@ -0,0 +1,31 @@
+package evolutionary;
+
+/**
+ * Bent Cigar Function (CEC 2014 F2, without rotations and shifting).
+ */
+public final class BentCigarFunction implements SeparableFunction {
+
+    @Override
+    public double evaluate(double[] x, int offset, int dim) {
+        double func = 0;
+
+        for (int i = 1; i < dim; ++i) {
+            double x_i = x[offset + i];
+            func += x_i * x_i;
+        }
+
+        return 1000000 * func + x[offset] * x[offset];
+    }
+
+    @Override
+    public double term(double[] x, int offset, int dim, int i) {
+        double x_i = x[offset + i];
+        return i == 0 ? x_i * x_i : 1000000 * (x_i * x_i);
+    }
+
+    @Override
+    public void evaluateBatch(double[] x, int dim, int[] rows, int from, int to, double[] values) {
+        EvaluationKernels.get().headTailSquares(x, dim, rows, from, to, 1, 1000000, values);
+    }
+
+}
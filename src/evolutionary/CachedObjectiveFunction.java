@@ -0,0 +1,78 @@
+package evolutionary;
+
+/**
+ * Objective function looking up values in {@link FitnessCache} before evaluating wrapped function.
+ */
+public final class CachedObjectiveFunction implements ObjectiveFunction {
+    private final ObjectiveFunction function;
+    private final FitnessCache cache;
+    private final ThreadLocal<int[]> missing = ThreadLocal.withInitial(() -> new int[0]);
+
+    /**
+     * @param function Wrapped function.
+     * @param cache    Cache used only with this function.
+     */
+    public CachedObjectiveFunction(ObjectiveFunction function, FitnessCache cache) {
+        this.function = function;
+        this.cache = cache;
+    }
+
+    /**
+     * @return Wrapped function.
+     */
+    public ObjectiveFunction getFunction() {
+        return function;
+    }
+
+    /**
+     * @return Cache of values.
+     */
+    public FitnessCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public double evaluate(double[] x, int offset, int dim) {
+        Double cached = cache.get(x, offset, dim);
+        if (cached != null) {
+            return cached;
+        }
+
+        double value = function.evaluate(x, offset, dim);
+        cache.put(x, offset, dim, value);
+        return value;
+    }
+
+    /**
+     * Looks up all rows first and evaluates the missing ones in one batch of wrapped function.
+     * Missing rows are listed in a buffer of calling thread, reused by its following batches.
+     */
+    @Override
+    public void evaluateBatch(double[] x, int dim, int[] rows, int from, int to, double[] values) {
+        int[] missing = this.missing.get();
+        if (missing.length < to - from) {
+            missing = new int[to - from];
+            this.missing.set(missing);
+        }
+        int missingCount = 0;
+
+        for (int i = from; i < to; ++i) {
+            Double cached = cache.get(x, rows[i] * dim, dim);
+
+            if (cached == null) {
+                missing[missingCount++] = rows[i];
+            } else {
+                values[rows[i]] = cached;
+            }
+        }
+
+        if (missingCount > 0) {
+            function.evaluateBatch(x, dim, missing, 0, missingCount, values);
+
+            for (int i = 0; i < missingCount; ++i) {
+                cache.put(x, missing[i] * dim, dim, values[missing[i]]);
+            }
+        }
+    }
+
+}
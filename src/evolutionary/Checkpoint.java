@@ -0,0 +1,511 @@
+package evolutionary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary checkpoint of evolution kept in a memory-mapped file.
+ * The file starts with a header and a section written once: parameters with master seed of random numbers, optima,
+ * composition parameters and the initial population. Each of populations with and without wedding owns two slots which are written alternately,
+ * so a crash during a write leaves the previous slot intact. A slot is valid when its checksum matches.
+ * State of population is copied on the generation thread, the copy is written to the file by a background thread.
+ */
+public class Checkpoint implements Closeable {
+    private static final int MAGIC = 0x45565744;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final ExecutorService writer;
+    private final int interval;
+    private final int dim;
+    private final int rows;
+    private final int blockSize;
+    private final int slotsOffset;
+    private final int[] nextSlot = new int[2];
+    private volatile Throwable failure;
+
+    /**
+     * Copy of one population together with its generation counter, which with master seed determines its random numbers.
+     */
+    static class PopulationState {
+        final long generation;
+        final int size;
+        final boolean sorted;
+        final double[] x;
+        final double[] sigma;
+        final double[] objFuncVal;
+        final double[] rawObjFuncVal;
+        final boolean[] married;
+        final int[] permutation;
+
+        PopulationState(long generation, int size, boolean sorted, double[] x, double[] sigma, double[] objFuncVal,
+                        double[] rawObjFuncVal, boolean[] married, int[] permutation) {
+            this.generation = generation;
+            this.size = size;
+            this.sorted = sorted;
+            this.x = x;
+            this.sigma = sigma;
+            this.objFuncVal = objFuncVal;
+            this.rawObjFuncVal = rawObjFuncVal;
+            this.married = married;
+            this.permutation = permutation;
+        }
+
+        /**
+         * Copies used rows of population, cost is a few array copies.
+         */
+        static PopulationState capture(Population population, long generation) {
+            PopulationStore store = population.getStore();
+            int size = store.getSize();
+            int genes = size * store.getDimension();
+
+            return new PopulationState(generation, size, population.isSorted(),
+                    Arrays.copyOf(store.getX(), genes), Arrays.copyOf(store.getSigma(), genes),
+                    Arrays.copyOf(store.getObjFuncVal(), size), Arrays.copyOf(store.getRawObjFuncVal(), size),
+                    Arrays.copyOf(store.getMarried(), size), population.getWeddingEngine().getPermutation().clone());
+        }
+
+        /**
+         * Creates population with the copied rows, generation counter and wedding permutation.
+         */
+        Population restore(Evolution evolution, int dim, ObjectiveFunction function) {
+            Population population = new Population(evolution, dim, function);
+            PopulationStore store = population.getStore();
+
+            store.setSize(size);
+            System.arraycopy(x, 0, store.getX(), 0, size * dim);
+            System.arraycopy(sigma, 0, store.getSigma(), 0, size * dim);
+            for (int i = 0; i < size; ++i) {
+                store.setObjFuncVal(i, objFuncVal[i]);
+                store.setRawObjFuncVal(i, rawObjFuncVal[i]);
+                store.setMarried(i, married[i]);
+            }
+
+            population.setGeneration(generation);
+            population.getWeddingEngine().setPermutation(permutation);
+            population.setSorted(sorted);
+
+            return population;
+        }
+    }
+
+    /**
+     * Whole content of checkpoint file, used to rebuild evolution.
+     */
+    static class State {
+        long seed;
+        int mi;
+        int childrenCount;
+        int dim;
+        int funcNum;
+        int repeatNum;
+        double mutationProbability;
+        int N;
+        double[] sigma;
+        double[] lambda;
+        int[] g;
+        double[] bias;
+        double[][] optimum;
+        PopulationState initial;
+        PopulationState withWedding;
+        PopulationState withoutWedding;
+    }
+
+
+    /*----- Constructors -----*/
+
+    private Checkpoint(Path file, int interval, int dim, int rows, int sharedSize, boolean create) throws IOException {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Interval must be at least one generation");
+        }
+
+        this.interval = interval;
+        this.dim = dim;
+        this.rows = rows;
+        this.blockSize = blockSize(dim, rows);
+        this.slotsOffset = HEADER_SIZE + sharedSize + blockSize;
+
+        long fileSize = (long) slotsOffset + 4L * blockSize;
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Population too big for checkpoint file");
+        }
+
+        channel = create
+                ? FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+        writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "evolution-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+
+    /*----- Getters & setters -----*/
+
+    /**
+     * @return Number of generations between two writes of population.
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+
+    /*----- Methods -----*/
+
+    /**
+     * Creates checkpoint file of evolution and writes its current state synchronously.
+     *
+     * @param file      Checkpoint file, overwritten when it exists.
+     * @param evolution Evolution to checkpoint.
+     * @param interval  Number of generations between two writes of population.
+     * @return Opened checkpoint.
+     * @throws IOException When file cannot be created or mapped.
+     */
+    static Checkpoint create(Path file, Evolution evolution, int interval) throws IOException {
+        State state = evolution.captureState();
+        Checkpoint checkpoint = new Checkpoint(file, interval, state.dim, state.mi, sharedSize(state), true);
+
+        checkpoint.writeShared(state);
+        checkpoint.writeSlot(0, 0, state.withWedding);
+        checkpoint.writeSlot(1, 0, state.withoutWedding);
+        checkpoint.nextSlot[0] = 1;
+        checkpoint.nextSlot[1] = 1;
+
+        return checkpoint;
+    }
+
+    /**
+     * Reads checkpoint file, the newest valid slot of each population is taken.
+     *
+     * @param file Checkpoint file.
+     * @return State of evolution.
+     * @throws IOException When file cannot be read or holds no valid state.
+     */
+    static State read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Read whole header
+            }
+            header.flip();
+
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new IOException("Not a checkpoint file: " + file);
+            }
+            if (header.getInt() != VERSION) {
+                throw new IOException("Unsupported checkpoint version: " + file);
+            }
+
+            State state = new State();
+            state.mi = header.getInt();
+            state.childrenCount = header.getInt();
+            state.dim = header.getInt();
+            state.funcNum = header.getInt();
+            state.repeatNum = header.getInt();
+            state.N = header.getInt();
+            int components = header.getInt();
+            state.mutationProbability = header.getDouble();
+            state.seed = header.getLong();
+            long sharedCrc = header.getLong();
+
+            int blockSize = blockSize(state.dim, state.mi);
+            int sharedSize = sharedSize(state.dim, state.N, components);
+            int slotsOffset = HEADER_SIZE + sharedSize + blockSize;
+            if (channel.size() < (long) slotsOffset + 4L * blockSize) {
+                throw new IOException("Truncated checkpoint file: " + file);
+            }
+            ByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, 0, (long) slotsOffset + 4L * blockSize);
+
+            ByteBuffer shared = content.duplicate();
+            shared.position(HEADER_SIZE).limit(HEADER_SIZE + sharedSize);
+            if (crc(shared.duplicate()) != sharedCrc) {
+                throw new IOException("Damaged checkpoint file: " + file);
+            }
+
+            state.sigma = getDoubles(shared, components);
+            state.lambda = getDoubles(shared, components);
+            state.g = new int[components];
+            for (int i = 0; i < components; ++i) {
+                state.g[i] = shared.getInt();
+            }
+            state.bias = getDoubles(shared, components);
+            state.optimum = new double[state.N][];
+            for (int i = 0; i < state.N; ++i) {
+                state.optimum[i] = getDoubles(shared, state.dim);
+            }
+
+            state.initial = readBlock(content, slotsOffset - blockSize, state.dim, state.mi);
+            state.withWedding = newest(content, slotsOffset, state.dim, state.mi);
+            state.withoutWedding = newest(content, slotsOffset + 2 * blockSize, state.dim, state.mi);
+
+            if (state.initial == null || state.withWedding == null || state.withoutWedding == null) {
+                throw new IOException("No valid state in checkpoint file: " + file);
+            }
+
+            return state;
+        }
+    }
+
+    /**
+     * Opens existing checkpoint file of resumed evolution, further writes go to the older slot of each population.
+     *
+     * @param file     Checkpoint file the evolution was read from.
+     * @param state    State read from the file.
+     * @param interval Number of generations between two writes of population.
+     * @return Opened checkpoint.
+     * @throws IOException When file cannot be mapped.
+     */
+    static Checkpoint open(Path file, State state, int interval) throws IOException {
+        Checkpoint checkpoint = new Checkpoint(file, interval, state.dim, state.mi, sharedSize(state), false);
+
+        for (int arm = 0; arm < 2; ++arm) {
+            PopulationState first = readBlock(checkpoint.buffer, checkpoint.slotOffset(arm, 0), state.dim, state.mi);
+            PopulationState second = readBlock(checkpoint.buffer, checkpoint.slotOffset(arm, 1), state.dim, state.mi);
+            boolean firstNewest = second == null || (first != null && first.generation >= second.generation);
+            checkpoint.nextSlot[arm] = firstNewest ? 1 : 0;
+        }
+
+        return checkpoint;
+    }
+
+    /**
+     * Called after each generation of population. Every interval generations (and after the last one) state of
+     * population is copied and queued for writing, the calling thread does not wait for the file.
+     *
+     * @param arm        0 for population with wedding, 1 for population without wedding.
+     * @param generation Number of finished generations of the population.
+     * @param last       True after the last generation.
+     * @param population Population after the generation.
+     */
+    void generationDone(int arm, int generation, boolean last, Population population) {
+        if (generation % interval != 0 && !last) {
+            return;
+        }
+
+        PopulationState state = PopulationState.capture(population, generation);
+        int slot = nextSlot[arm];
+        nextSlot[arm] = 1 - slot;
+
+        writer.execute(() -> {
+            try {
+                writeSlot(arm, slot, state);
+            } catch (Throwable e) {
+                failure = e;
+            }
+        });
+    }
+
+    /**
+     * Waits for queued writes and forces content of the file to the storage device.
+     *
+     * @throws IOException When one of writes failed.
+     */
+    public void flush() throws IOException {
+        try {
+            writer.submit(() -> {
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for checkpoint", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Writing checkpoint failed", e.getCause());
+        }
+
+        if (failure != null) {
+            throw new IOException("Writing checkpoint failed", failure);
+        }
+        buffer.force();
+    }
+
+    /**
+     * Flushes queued writes, stops writing thread and closes the file.
+     *
+     * @throws IOException When one of writes failed or file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            writer.shutdown();
+            try {
+                writer.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            channel.close();
+        }
+    }
+
+    private void writeShared(State state) {
+        ByteBuffer header = buffer.duplicate();
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(state.mi);
+        header.putInt(state.childrenCount);
+        header.putInt(state.dim);
+        header.putInt(state.funcNum);
+        header.putInt(state.repeatNum);
+        header.putInt(state.N);
+        header.putInt(state.sigma.length);
+        header.putDouble(state.mutationProbability);
+        header.putLong(state.seed);
+
+        // Composition parameters have one entry per component, no entries for other functions
+        int components = state.sigma.length;
+        ByteBuffer shared = buffer.duplicate();
+        shared.position(HEADER_SIZE).limit(HEADER_SIZE + sharedSize(state));
+        putDoubles(shared, state.sigma, components);
+        putDoubles(shared, state.lambda, components);
+        for (int i = 0; i < components; ++i) {
+            shared.putInt(state.g[i]);
+        }
+        putDoubles(shared, state.bias, components);
+        for (int i = 0; i < state.N; ++i) {
+            putDoubles(shared, state.optimum[i], dim);
+        }
+
+        shared.flip().position(HEADER_SIZE);
+        header.putLong(crc(shared));
+
+        writeBlock(slotsOffset - blockSize, state.initial);
+    }
+
+    private void writeSlot(int arm, int slot, PopulationState state) {
+        writeBlock(slotOffset(arm, slot), state);
+    }
+
+    private int slotOffset(int arm, int slot) {
+        return slotsOffset + (2 * arm + slot) * blockSize;
+    }
+
+    /**
+     * Block layout: checksum, generation, size, sorted flag, wedding permutation, rows.
+     * Checksum is written last, so a block interrupted in the middle is recognized as invalid.
+     */
+    private void writeBlock(int offset, PopulationState state) {
+        if (state.size > rows || state.permutation.length > rows) {
+            throw new IllegalStateException("Population does not fit in checkpoint block");
+        }
+
+        ByteBuffer block = buffer.duplicate();
+        block.position(offset + Long.BYTES).limit(offset + blockSize);
+        block.putLong(state.generation);
+        block.putInt(state.size);
+        block.put((byte) (state.sorted ? 1 : 0));
+        block.putInt(state.permutation.length);
+        block.asIntBuffer().put(state.permutation);
+        block.position(block.position() + Integer.BYTES * rows);
+        putDoubles(block, state.x, state.size * dim);
+        putDoubles(block, state.sigma, state.size * dim);
+        putDoubles(block, state.objFuncVal, state.size);
+        putDoubles(block, state.rawObjFuncVal, state.size);
+        for (int i = 0; i < state.size; ++i) {
+            block.put((byte) (state.married[i] ? 1 : 0));
+        }
+
+        block.flip().position(offset + Long.BYTES);
+        buffer.putLong(offset, crc(block));
+    }
+
+    private static PopulationState readBlock(ByteBuffer content, int offset, int dim, int rows) {
+        ByteBuffer block = content.duplicate();
+        block.position(offset + Long.BYTES).limit(offset + blockSize(dim, rows));
+        long stored = content.getLong(offset);
+
+        long generation = block.getLong();
+        int size = block.getInt();
+        if (size < 0 || size > rows) {
+            return null;
+        }
+        int used = Long.BYTES + Integer.BYTES + 1 + Integer.BYTES + Integer.BYTES * rows
+                + size * (dim * 2 * Double.BYTES + 2 * Double.BYTES + 1);
+        ByteBuffer checked = content.duplicate();
+        checked.position(offset + Long.BYTES).limit(offset + Long.BYTES + used);
+        if (crc(checked) != stored) {
+            return null;
+        }
+
+        boolean sorted = block.get() != 0;
+        int[] permutation = new int[block.getInt()];
+        block.asIntBuffer().get(permutation);
+        block.position(block.position() + Integer.BYTES * rows);
+        double[] x = getDoubles(block, size * dim);
+        double[] sigma = getDoubles(block, size * dim);
+        double[] objFuncVal = getDoubles(block, size);
+        double[] rawObjFuncVal = getDoubles(block, size);
+        boolean[] married = new boolean[size];
+        for (int i = 0; i < size; ++i) {
+            married[i] = block.get() != 0;
+        }
+
+        return new PopulationState(generation, size, sorted, x, sigma, objFuncVal, rawObjFuncVal, married, permutation);
+    }
+
+    private static PopulationState newest(ByteBuffer content, int offset, int dim, int rows) {
+        PopulationState first = readBlock(content, offset, dim, rows);
+        PopulationState second = readBlock(content, offset + blockSize(dim, rows), dim, rows);
+
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        return first.generation >= second.generation ? first : second;
+    }
+
+    private static int fixedBlockSize() {
+        return Long.BYTES + Long.BYTES + Integer.BYTES + 1 + Integer.BYTES;
+    }
+
+    private static int blockSize(int dim, int rows) {
+        long size = fixedBlockSize() + (long) rows * (dim * 2 * Double.BYTES + 2 * Double.BYTES + 1 + Integer.BYTES);
+        if (size > Integer.MAX_VALUE / 8) {
+            throw new IllegalArgumentException("Population too big for checkpoint file");
+        }
+        return (int) size;
+    }
+
+    private static int sharedSize(int dim, int N, int components) {
+        return components * (3 * Double.BYTES + Integer.BYTES) + N * dim * Double.BYTES;
+    }
+
+    private static int sharedSize(State state) {
+        return sharedSize(state.dim, state.N, state.sigma.length);
+    }
+
+    private static long crc(ByteBuffer content) {
+        CRC32C crc = new CRC32C();
+        crc.update(content);
+        return crc.getValue();
+    }
+
+    private static void putDoubles(ByteBuffer target, double[] values, int count) {
+        target.asDoubleBuffer().put(values, 0, count);
+        target.position(target.position() + Double.BYTES * count);
+    }
+
+    private static double[] getDoubles(ByteBuffer source, int count) {
+        double[] values = new double[count];
+        source.asDoubleBuffer().get(values);
+        source.position(source.position() + Double.BYTES * count);
+        return values;
+    }
+
+}
@@ -0,0 +1,307 @@
+package evolutionary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Writes results to results.bin and genomes to genomes.bin in given directory, in compact binary columnar form.
+ * A file starts with magic number and is followed by chunks, one per written batch. A chunk of results is number of
+ * rows and then each column as a whole: run ids, function numbers, mutation probabilities, arms, generations, the
+ * best, the worst and mean values. A chunk of genomes holds genomes of one dimension: number of rows, dimension, run
+ * ids, arms, generations, ranks, objective function values and then x and sigma, each gene as one column.
+ * Numbers are big-endian, doubles are stored as their IEEE 754 bits. Files can be read back by
+ * {@link #readResults(Path)} and {@link #readGenomes(Path)}, or streamed chunk by chunk.
+ */
+public class ColumnarResultsBackend implements ResultsBackend {
+    public static final String RESULTS_FILE = "results.bin";
+    public static final String GENOMES_FILE = "genomes.bin";
+
+    private static final int RESULTS_MAGIC = 0x45575231;
+    private static final int GENOMES_MAGIC = 0x45574731;
+
+    private final Path directory;
+    private final DataOutputStream results;
+    private DataOutputStream genomes;
+
+
+    /*----- Constructors -----*/
+
+    /**
+     * @param directory Directory of files, created when missing, existing files are replaced.
+     * @throws IOException When files cannot be created.
+     */
+    public ColumnarResultsBackend(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        results = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(directory.resolve(RESULTS_FILE)), 1 << 16));
+        results.writeInt(RESULTS_MAGIC);
+    }
+
+
+    /*----- Methods -----*/
+
+    @Override
+    public void writeResults(List<ResultRecord> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+
+        results.writeInt(records.size());
+        for (ResultRecord record : records) {
+            results.writeLong(record.getRunId());
+        }
+        for (ResultRecord record : records) {
+            results.writeInt(record.getFuncNum());
+        }
+        for (ResultRecord record : records) {
+            results.writeDouble(record.getMutationProbability());
+        }
+        for (ResultRecord record : records) {
+            results.writeByte(record.getArm());
+        }
+        for (ResultRecord record : records) {
+            results.writeInt(record.getGeneration());
+        }
+        for (ResultRecord record : records) {
+            results.writeDouble(record.getBest());
+        }
+        for (ResultRecord record : records) {
+            results.writeDouble(record.getWorst());
+        }
+        for (ResultRecord record : records) {
+            results.writeDouble(record.getMean());
+        }
+    }
+
+    @Override
+    public void writeGenomes(List<GenomeRecord> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        if (genomes == null) {
+            // Genome dump is optional, its file is created with the first genome
+            genomes = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(directory.resolve(GENOMES_FILE)), 1 << 16));
+            genomes.writeInt(GENOMES_MAGIC);
+        }
+
+        // Each run of genomes of the same dimension is one chunk
+        int from = 0;
+        while (from < records.size()) {
+            int dim = records.get(from).getDimension();
+            int to = from + 1;
+            while (to < records.size() && records.get(to).getDimension() == dim) {
+                ++to;
+            }
+            writeGenomeChunk(records.subList(from, to), dim);
+            from = to;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        results.flush();
+        if (genomes != null) {
+            genomes.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            results.close();
+        } finally {
+            if (genomes != null) {
+                genomes.close();
+            }
+        }
+    }
+
+    /**
+     * @param file File written by this backend.
+     * @return All result rows of file, in order of writing.
+     * @throws IOException When file cannot be read or is not results file.
+     */
+    public static List<ResultRecord> readResults(Path file) throws IOException {
+        List<ResultRecord> records = new ArrayList<>();
+        readResults(file, records::add);
+        return records;
+    }
+
+    /**
+     * Reads file chunk by chunk, only one chunk is held in memory.
+     *
+     * @param file     File written by this backend.
+     * @param consumer Receives result rows of file, in order of writing.
+     * @throws IOException When file cannot be read or is not results file.
+     */
+    public static void readResults(Path file, Consumer<ResultRecord> consumer) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != RESULTS_MAGIC) {
+                throw new IOException(file + " is not results file");
+            }
+
+            int rows;
+            while ((rows = readChunkSize(in)) >= 0) {
+                long[] runIds = new long[rows];
+                int[] funcNums = new int[rows];
+                double[] mutationProbabilities = new double[rows];
+                int[] arms = new int[rows];
+                int[] generations = new int[rows];
+                double[] best = new double[rows];
+                double[] worst = new double[rows];
+                double[] mean = new double[rows];
+
+                for (int i = 0; i < rows; ++i) {
+                    runIds[i] = in.readLong();
+                }
+                for (int i = 0; i < rows; ++i) {
+                    funcNums[i] = in.readInt();
+                }
+                for (int i = 0; i < rows; ++i) {
+                    mutationProbabilities[i] = in.readDouble();
+                }
+                for (int i = 0; i < rows; ++i) {
+                    arms[i] = in.readByte();
+                }
+                for (int i = 0; i < rows; ++i) {
+                    generations[i] = in.readInt();
+                }
+                readColumn(in, best);
+                readColumn(in, worst);
+                readColumn(in, mean);
+
+                for (int i = 0; i < rows; ++i) {
+                    consumer.accept(new ResultRecord(runIds[i], funcNums[i], mutationProbabilities[i], arms[i],
+                            generations[i], best[i], worst[i], mean[i]));
+                }
+            }
+        }
+    }
+
+    /**
+     * @param file File written by this backend.
+     * @return All genomes of file, in order of writing, empty when no genome was dumped.
+     * @throws IOException When file cannot be read or is not genomes file.
+     */
+    public static List<GenomeRecord> readGenomes(Path file) throws IOException {
+        List<GenomeRecord> records = new ArrayList<>();
+        readGenomes(file, records::add);
+        return records;
+    }
+
+    /**
+     * Reads file chunk by chunk, only one chunk is held in memory.
+     *
+     * @param file     File written by this backend.
+     * @param consumer Receives genomes of file, in order of writing, none when no genome was dumped.
+     * @throws IOException When file cannot be read or is not genomes file.
+     */
+    public static void readGenomes(Path file, Consumer<GenomeRecord> consumer) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != GENOMES_MAGIC) {
+                throw new IOException(file + " is not genomes file");
+            }
+
+            int rows;
+            while ((rows = readChunkSize(in)) >= 0) {
+                int dim = in.readInt();
+                long[] runIds = new long[rows];
+                int[] arms = new int[rows];
+                int[] generations = new int[rows];
+                int[] ranks = new int[rows];
+                double[] objFuncVals = new double[rows];
+                double[][] x = new double[rows][dim];
+                double[][] sigma = new double[rows][dim];
+
+                for (int i = 0; i < rows; ++i) {
+                    runIds[i] = in.readLong();
+                }
+                for (int i = 0; i < rows; ++i) {
+                    arms[i] = in.readByte();
+                }
+                for (int i = 0; i < rows; ++i) {
+                    generations[i] = in.readInt();
+                }
+                for (int i = 0; i < rows; ++i) {
+                    ranks[i] = in.readInt();
+                }
+                readColumn(in, objFuncVals);
+                for (int j = 0; j < dim; ++j) {
+                    for (int i = 0; i < rows; ++i) {
+                        x[i][j] = in.readDouble();
+                    }
+                }
+                for (int j = 0; j < dim; ++j) {
+                    for (int i = 0; i < rows; ++i) {
+                        sigma[i][j] = in.readDouble();
+                    }
+                }
+
+                for (int i = 0; i < rows; ++i) {
+                    consumer.accept(new GenomeRecord(runIds[i], arms[i], generations[i], ranks[i], objFuncVals[i], x[i],
+                            sigma[i]));
+                }
+            }
+        }
+    }
+
+    private void writeGenomeChunk(List<GenomeRecord> records, int dim) throws IOException {
+        genomes.writeInt(records.size());
+        genomes.writeInt(dim);
+        for (GenomeRecord record : records) {
+            genomes.writeLong(record.getRunId());
+        }
+        for (GenomeRecord record : records) {
+            genomes.writeByte(record.getArm());
+        }
+        for (GenomeRecord record : records) {
+            genomes.writeInt(record.getGeneration());
+        }
+        for (GenomeRecord record : records) {
+            genomes.writeInt(record.getRank());
+        }
+        for (GenomeRecord record : records) {
+            genomes.writeDouble(record.getObjFuncVal());
+        }
+        for (int j = 0; j < dim; ++j) {
+            for (GenomeRecord record : records) {
+                genomes.writeDouble(record.getX()[j]);
+            }
+        }
+        for (int j = 0; j < dim; ++j) {
+            for (GenomeRecord record : records) {
+                genomes.writeDouble(record.getSigma()[j]);
+            }
+        }
+    }
+
+    /**
+     * @return Number of rows of the next chunk, -1 at the end of file.
+     */
+    private static int readChunkSize(DataInputStream in) throws IOException {
+        try {
+            return in.readInt();
+        } catch (EOFException e) {
+            return -1;
+        }
+    }
+
+    private static void readColumn(DataInputStream in, double[] column) throws IOException {
+        for (int i = 0; i < column.length; ++i) {
+            column[i] = in.readDouble();
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+package evolutionary;
+
+import static java.lang.Math.exp;
+import static java.lang.Math.sqrt;
+
+/**
+ * Composition Function (CEC 2014 F23 and F27, without rotations and shifting).
+ * Weighted sum of base functions, weights depend on distance of individual to optimum of each base function.
+ * Parameters of composition are compiled once per evolution into flat arrays, so evaluation does not allocate.
+ */
+public final class CompositionFunction implements ObjectiveFunction {
+    private final int n;
+    private final int dim;
+    private final double[] optimum;
+    private final double[] denominator;
+    private final double[] lambda;
+    private final double[] bias;
+    private final ObjectiveFunction[] functions;
+    private final ThreadLocal<double[]> weights;
+
+    /**
+     * @param evolution Evolution holding optima and parameters of composition.
+     */
+    public CompositionFunction(Evolution evolution) {
+        n = evolution.getN();
+        dim = evolution.getDimension();
+        optimum = new double[n * dim];
+        denominator = new double[n];
+        lambda = evolution.getLambda().clone();
+        bias = evolution.getBias().clone();
+        functions = new ObjectiveFunction[n];
+        weights = ThreadLocal.withInitial(() -> new double[n]);
+
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < dim; ++j) {
+                optimum[i * dim + j] = evolution.getOptimum(i, j);
+            }
+
+            double sigma = evolution.getSigma()[i];
+            denominator[i] = 2 * dim * (sigma * sigma);
+            functions[i] = ObjectiveFunctions.create(evolution.getG()[i], evolution);
+        }
+    }
+
+    /**
+     * Counts omega_i = w_i / sum of w_i and returns sum of omega_i * (lambda_i * g_i(x) + bias_i).
+     * Weights are kept in a buffer of calling thread, base function is not evaluated when its weight underflows to zero
+     * and some other weight does not.
+     */
+    @Override
+    public double evaluate(double[] x, int offset, int dim) {
+        double[] w = weights.get();
+        double sumW = 0;
+
+        for (int i = 0; i < n; ++i) {
+            int o = i * this.dim;
+            double sum = 0;
+
+            for (int j = 0; j < dim; ++j) {
+                double d = x[offset + j] - optimum[o + j];
+                sum += d * d;
+            }
+
+            w[i] = exp(-sum / denominator[i]) / sqrt(sum);
+            sumW += w[i];
+        }
+
+        double compFunc = 0;
+        for (int i = 0; i < n; ++i) {
+            // Such term is zero, unless every weight underflowed and omega_i are 0 / 0 as in definition
+            if (w[i] == 0 && sumW > 0) {
+                continue;
+            }
+            compFunc += w[i] / sumW * (lambda[i] * functions[i].evaluate(x, offset, dim) + bias[i]);
+        }
+
+        return compFunc;
+    }
+
+}
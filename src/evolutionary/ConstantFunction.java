@@ -0,0 +1,21 @@
+package evolutionary;
+
+/**
+ * Function with the same value everywhere, used for unknown function numbers.
+ */
+public final class ConstantFunction implements ObjectiveFunction {
+    private final double value;
+
+    /**
+     * @param value Value of the function.
+     */
+    public ConstantFunction(double value) {
+        this.value = value;
+    }
+
+    @Override
+    public double evaluate(double[] x, int offset, int dim) {
+        return value;
+    }
+
+}
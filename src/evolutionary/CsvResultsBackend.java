@@ -0,0 +1,108 @@
+package evolutionary;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes results to results.csv and genomes to genomes.csv in given directory.
+ * Numbers are written in shortest form which reads back to the same double.
+ * In genomes.csv x and sigma are separated by semicolons within their columns, so that rows of different dimension
+ * share one header.
+ */
+public class CsvResultsBackend implements ResultsBackend {
+    public static final String RESULTS_FILE = "results.csv";
+    public static final String GENOMES_FILE = "genomes.csv";
+
+    private final Path directory;
+    private final BufferedWriter results;
+    private BufferedWriter genomes;
+    private final StringBuilder line = new StringBuilder();
+
+
+    /*----- Constructors -----*/
+
+    /**
+     * @param directory Directory of files, created when missing, existing files are replaced.
+     * @throws IOException When files cannot be created.
+     */
+    public CsvResultsBackend(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        results = Files.newBufferedWriter(directory.resolve(RESULTS_FILE), StandardCharsets.UTF_8);
+        results.write("run,function,mutation_probability,arm,generation,best,worst,mean\n");
+    }
+
+
+    /*----- Methods -----*/
+
+    @Override
+    public void writeResults(List<ResultRecord> records) throws IOException {
+        for (ResultRecord record : records) {
+            line.setLength(0);
+            line.append(record.getRunId()).append(',')
+                    .append(record.getFuncNum()).append(',')
+                    .append(record.getMutationProbability()).append(',')
+                    .append(record.getArm()).append(',')
+                    .append(record.getGeneration()).append(',')
+                    .append(record.getBest()).append(',')
+                    .append(record.getWorst()).append(',')
+                    .append(record.getMean()).append('\n');
+            results.append(line);
+        }
+    }
+
+    @Override
+    public void writeGenomes(List<GenomeRecord> records) throws IOException {
+        if (genomes == null) {
+            // Genome dump is optional, its file is created with the first genome
+            genomes = Files.newBufferedWriter(directory.resolve(GENOMES_FILE), StandardCharsets.UTF_8);
+            genomes.write("run,arm,generation,rank,objective_function_value,x,sigma\n");
+        }
+
+        for (GenomeRecord record : records) {
+            line.setLength(0);
+            line.append(record.getRunId()).append(',')
+                    .append(record.getArm()).append(',')
+                    .append(record.getGeneration()).append(',')
+                    .append(record.getRank()).append(',')
+                    .append(record.getObjFuncVal()).append(',');
+            appendArray(record.getX());
+            line.append(',');
+            appendArray(record.getSigma());
+            line.append('\n');
+            genomes.append(line);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        results.flush();
+        if (genomes != null) {
+            genomes.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            results.close();
+        } finally {
+            if (genomes != null) {
+                genomes.close();
+            }
+        }
+    }
+
+    private void appendArray(double[] values) {
+        for (int i = 0; i < values.length; ++i) {
+            if (i > 0) {
+                line.append(';');
+            }
+            line.append(values[i]);
+        }
+    }
+
+}
@@ -0,0 +1,28 @@
+package evolutionary;
+
+import java.time.Duration;
+
+/**
+ * Stops population when given wall-clock time since start of evolution has passed.
+ * The generation running at the deadline is finished first, so evolution ends with the best population found so far.
+ */
+public final class DeadlineCriterion implements TerminationCriterion {
+    private final long nanos;
+
+    /**
+     * @param timeout Time since start of evolution.
+     */
+    public DeadlineCriterion(Duration timeout) {
+        this.nanos = timeout.toNanos();
+    }
+
+    @Override
+    public boolean isMet(EvolutionProgress progress) {
+        return progress.getElapsedNanos() >= nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "deadline of " + Duration.ofNanos(nanos) + " passed";
+    }
+}
@@ -0,0 +1,27 @@
+package evolutionary;
+
+/**
+ * Stops population when it collapsed, i.e. its diversity fell below threshold.
+ *
+ * @see EvolutionProgress#getDiversity()
+ */
+public final class DiversityCriterion implements TerminationCriterion {
+    private final double threshold;
+
+    /**
+     * @param threshold The smallest root mean square distance of individuals from centroid which lets population go on.
+     */
+    public DiversityCriterion(double threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public boolean isMet(EvolutionProgress progress) {
+        return progress.getDiversity() < threshold;
+    }
+
+    @Override
+    public String toString() {
+        return "diversity below " + threshold;
+    }
+}
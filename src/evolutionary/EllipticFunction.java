@@ -0,0 +1,54 @@
+package evolutionary;
+
+import static java.lang.Math.pow;
+
+/**
+ * High Conditioned Elliptic Function (CEC 2014 F1, without rotations and shifting).
+ */
+public final class EllipticFunction implements SeparableFunction {
+    // Published to evaluating threads, counted again by whichever thread sees other dimension first
+    private volatile double[] coefficients = new double[0];
+
+    @Override
+    public double evaluate(double[] x, int offset, int dim) {
+        double[] c = coefficients(dim);
+        double func = 0;
+
+        for (int i = 0; i < dim; ++i) {
+            double x_i = x[offset + i];
+            func += c[i] * (x_i * x_i);
+        }
+
+        return func;
+    }
+
+    @Override
+    public double term(double[] x, int offset, int dim, int i) {
+        double x_i = x[offset + i];
+        return coefficients(dim)[i] * (x_i * x_i);
+    }
+
+    @Override
+    public void evaluateBatch(double[] x, int dim, int[] rows, int from, int to, double[] values) {
+        EvaluationKernels.get().weightedSumOfSquares(x, dim, rows, from, to, coefficients(dim), values);
+    }
+
+    /**
+     * @param dim Dimension of individual.
+     * @return Coefficients 10^6^((i - 1) / (D - 1)), counted once per dimension.
+     */
+    double[] coefficients(int dim) {
+        double[] c = coefficients;
+
+        if (c.length != dim) {
+            c = new double[dim];
+            for (int i = 0; i < dim; ++i) {
+                c[i] = pow(1000000, ((double) i - 1) / ((double) dim - 1));
+            }
+            coefficients = c;
+        }
+
+        return c;
+    }
+
+}
@@ -0,0 +1,62 @@
+package evolutionary;
+
+/**
+ * Batch kernels of separable objective functions. Each call scores a block of rows of a flat gene array
+ * (row r occupies indices from r * dim to (r + 1) * dim) and writes values at index of the row.
+ * Kernels written against jdk.incubator.vector are used when the module is present, scalar ones otherwise.
+ */
+interface EvaluationKernels {
+
+    /**
+     * @return Kernels chosen for this JVM.
+     */
+    static EvaluationKernels get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Sum of w_i * x_i^2 (elliptic function).
+     */
+    void weightedSumOfSquares(double[] x, int dim, int[] rows, int from, int to, double[] weights, double[] values);
+
+    /**
+     * tailWeight * sum of x_i^2 for i > 0 plus headWeight * x_0^2 (bent cigar and discus functions).
+     */
+    void headTailSquares(double[] x, int dim, int[] rows, int from, int to, double headWeight, double tailWeight, double[] values);
+
+    void rastrigin(double[] x, int dim, int[] rows, int from, int to, double[] values);
+
+    void rosenbrock(double[] x, int dim, int[] rows, int from, int to, double[] values);
+
+    void hgbat(double[] x, int dim, int[] rows, int from, int to, double[] values);
+
+    /**
+     * @param sqrtIndex sqrt(i + 1) for each gene
+     */
+    void griewank(double[] x, int dim, int[] rows, int from, int to, double[] sqrtIndex, double[] values);
+
+    /**
+     * Lazily chooses kernels, vector ones can be turned off with -Devolutionary.vector=false.
+     */
+    final class Holder {
+        static final EvaluationKernels INSTANCE = load();
+
+        private Holder() {
+        }
+
+        private static EvaluationKernels load() {
+            boolean enabled = Boolean.parseBoolean(System.getProperty("evolutionary.vector", "true"));
+
+            if (enabled && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+                try {
+                    return (EvaluationKernels) Class.forName("evolutionary.VectorKernels").getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException | LinkageError e) {
+                    // Fall back to scalar kernels
+                }
+            }
+
+            return new ScalarKernels();
+        }
+    }
+
+}
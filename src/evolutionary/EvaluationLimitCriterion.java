@@ -0,0 +1,25 @@
+package evolutionary;
+
+/**
+ * Stops population when it used up its budget of objective function evaluations.
+ */
+public final class EvaluationLimitCriterion implements TerminationCriterion {
+    private final long maxEvaluations;
+
+    /**
+     * @param maxEvaluations Maximum number of objective function evaluations of one population, initial one included.
+     */
+    public EvaluationLimitCriterion(long maxEvaluations) {
+        this.maxEvaluations = maxEvaluations;
+    }
+
+    @Override
+    public boolean isMet(EvolutionProgress progress) {
+        return progress.getEvaluations() >= maxEvaluations;
+    }
+
+    @Override
+    public String toString() {
+        return maxEvaluations + " evaluations used";
+    }
+}
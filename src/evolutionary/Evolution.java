@@ -1,7 +1,14 @@
 package evolutionary;
 
-import java.util.Comparator;
-import java.util.Random;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents evolution that is conducted on population n times.
@@ -11,24 +18,42 @@ public class Evolution {
     private Population population;
     private Population newPopulationWithWedding;
     private Population newPopulationWithoutWedding;
+    private int mi;
     private int childrenCount;
     private double[][] optimum;
     private boolean[] isWedding;
     private double mutationProbability;
     private int repeatNum;
+    private int funcNum;
     private int dim;
     private int N;
     private double[] sigma;
     private double[] lambda;
     private int[] g;
     private double[] bias;
+    private ObjectiveFunction objectiveFunction;
+    private FitnessCache fitnessCache;
+    private boolean concurrentArms = false;
+    private Checkpoint checkpoint;
+    private GenerationPublisher publisher = new GenerationPublisher();
 
-    private Random rand = new Random();
+    // Finished generations of population with wedding and without wedding
+    private int[] generations = new int[2];
+
+    // Criteria stopping populations early, the one which stopped each population and cooperative cancellation
+    private final CopyOnWriteArrayList<TerminationCriterion> termination = new CopyOnWriteArrayList<>();
+    private final EvolutionProgress[] progress = new EvolutionProgress[2];
+    private final TerminationCriterion[] stoppedBy = new TerminationCriterion[2];
+    private volatile boolean cancelled = false;
+
+    private RandomStreams streams;
 
 
     /*----- Constructors -----*/
 
     /**
+     * Evolution with random master seed, see {@link #getSeed()} to repeat it.
+     *
      * @param mi                  Size of the initial population.
      * @param childrenCount       Size of children population, in mi + lambda that is lambda.
      * @param dim                 Dimension of x and sigma array.
@@ -37,11 +62,31 @@ public class Evolution {
      * @param mutationProbability Probability of performing mutations.
      */
     public Evolution(int mi, int childrenCount, int dim, int funcNum, int repeatNum, double mutationProbability) {
+        this(mi, childrenCount, dim, funcNum, repeatNum, mutationProbability, RandomStreams.randomSeed());
+    }
+
+    /**
+     * Evolution whose all random numbers (optima, initial population and operators of both populations) come from
+     * streams derived from master seed, so it gives the same results for the same seed in every mode.
+     *
+     * @param mi                  Size of the initial population.
+     * @param childrenCount       Size of children population, in mi + lambda that is lambda.
+     * @param dim                 Dimension of x and sigma array.
+     * @param funcNum             Number of objective function.
+     * @param repeatNum           Number of evolutions.
+     * @param mutationProbability Probability of performing mutations.
+     * @param seed                Master seed of random numbers.
+     * @see RandomStreams
+     */
+    public Evolution(int mi, int childrenCount, int dim, int funcNum, int repeatNum, double mutationProbability, long seed) {
+        this.streams = new RandomStreams(seed);
+        this.mi = mi;
         this.dim = dim;
         this.childrenCount = childrenCount;
         this.isWedding = new boolean[]{true, false};
         this.mutationProbability = mutationProbability;
         this.repeatNum = repeatNum;
+        this.funcNum = funcNum;
 
         switch (funcNum) {
             case 23:
@@ -69,6 +114,7 @@ public class Evolution {
         }
 
         optimum = new double[N][dim];
+        RandomGenerator rand = streams.stream(RandomStreams.OPTIMA);
 
         for (int i = 0; i < N; ++i) {
             for (int j = 0; j < dim; ++j) {
@@ -77,19 +123,75 @@ public class Evolution {
             }
         }
 
-        population = new Population(this, mi, dim, -100, 100, 10, funcNum);
+        // Resolve function once, populations call it directly
+        objectiveFunction = ObjectiveFunctions.create(funcNum, this);
+
+        population = new Population(this, mi, dim, -100, 100, 10, objectiveFunction);
 
         // Sort population at the beginning to show three best individuals
-        population.getPopulation().sort(Comparator.comparingDouble(Individual::getObjFuncVal));
+        population.sort();
 
+        // Both populations start from read-only snapshot of initial population, each with its own random streams
         try {
             newPopulationWithWedding = (Population) population.clone();
             newPopulationWithoutWedding = (Population) population.clone();
+            newPopulationWithWedding.setRandomStreams(streams, RandomStreams.POPULATION_WITH_WEDDING);
+            newPopulationWithoutWedding.setRandomStreams(streams, RandomStreams.POPULATION_WITHOUT_WEDDING);
         } catch (CloneNotSupportedException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Evolution restored from checkpoint, each population continues from its last written generation.
+     *
+     * @param state State read from checkpoint file.
+     */
+    private Evolution(Checkpoint.State state) {
+        this.streams = new RandomStreams(state.seed);
+        this.mi = state.mi;
+        this.dim = state.dim;
+        this.childrenCount = state.childrenCount;
+        this.isWedding = new boolean[]{true, false};
+        this.mutationProbability = state.mutationProbability;
+        this.repeatNum = state.repeatNum;
+        this.funcNum = state.funcNum;
+        this.N = state.N;
+        this.sigma = state.sigma;
+        this.lambda = state.lambda;
+        this.g = state.g;
+        this.bias = state.bias;
+        this.optimum = state.optimum;
+
+        objectiveFunction = ObjectiveFunctions.create(funcNum, this);
+
+        population = state.initial.restore(this, dim, objectiveFunction);
+        newPopulationWithWedding = state.withWedding.restore(this, dim, objectiveFunction);
+        newPopulationWithoutWedding = state.withoutWedding.restore(this, dim, objectiveFunction);
+        newPopulationWithWedding.setRandomStreams(streams, RandomStreams.POPULATION_WITH_WEDDING);
+        newPopulationWithoutWedding.setRandomStreams(streams, RandomStreams.POPULATION_WITHOUT_WEDDING);
+        generations[0] = (int) state.withWedding.generation;
+        generations[1] = (int) state.withoutWedding.generation;
+    }
+
+    /**
+     * Restores evolution from checkpoint file and keeps writing its state to the same file.
+     * Evaluation pool, selection strategy, survivor selection, fitness cache and concurrent mode are not part of
+     * checkpoint, they have to be set again to the values used before.
+     *
+     * @param file     Checkpoint file written by evolution.
+     * @param interval Number of generations between two writes of each population.
+     * @return Evolution which continues from the last written generation of each population.
+     * @throws IOException When file cannot be read or holds no valid state.
+     * @see Evolution#setCheckpoint(Path, int)
+     */
+    public static Evolution resume(Path file, int interval) throws IOException {
+        Checkpoint.State state = Checkpoint.read(file);
+        Evolution evolution = new Evolution(state);
+        evolution.checkpoint = Checkpoint.open(file, state, interval);
+        return evolution;
+    }
+
 
     /*----- Getters & setters -----*/
 
@@ -105,6 +207,10 @@ public class Evolution {
         return N;
     }
 
+    public int getDimension() {
+        return dim;
+    }
+
     public int[] getG() {
         return g;
     }
@@ -113,6 +219,136 @@ public class Evolution {
         return bias;
     }
 
+    /**
+     * @return Objective function resolved from function number.
+     */
+    public ObjectiveFunction getObjectiveFunction() {
+        return objectiveFunction;
+    }
+
+    /**
+     * @return Cache of objective function values, or null when values are not cached.
+     */
+    public FitnessCache getFitnessCache() {
+        return fitnessCache;
+    }
+
+    /**
+     * Puts cache in front of objective function of both populations. Cache must not be used with other functions.
+     *
+     * @param fitnessCache Cache of objective function values, null to stop caching.
+     */
+    public void setFitnessCache(FitnessCache fitnessCache) {
+        if (objectiveFunction instanceof CachedObjectiveFunction) {
+            objectiveFunction = ((CachedObjectiveFunction) objectiveFunction).getFunction();
+        }
+        if (fitnessCache != null) {
+            objectiveFunction = new CachedObjectiveFunction(objectiveFunction, fitnessCache);
+        }
+
+        this.fitnessCache = fitnessCache;
+        newPopulationWithWedding.setObjectiveFunction(objectiveFunction);
+        newPopulationWithoutWedding.setObjectiveFunction(objectiveFunction);
+    }
+
+    /**
+     * @return True when populations with and without wedding evolve on separate threads.
+     */
+    public boolean isConcurrentArms() {
+        return concurrentArms;
+    }
+
+    /**
+     * @param concurrentArms Whether populations with and without wedding evolve on separate threads.
+     */
+    public void setConcurrentArms(boolean concurrentArms) {
+        this.concurrentArms = concurrentArms;
+    }
+
+    /**
+     * @return Master seed of random numbers of this evolution.
+     */
+    public long getSeed() {
+        return streams.getSeed();
+    }
+
+    /**
+     * @return Streams of random numbers derived from master seed.
+     */
+    public RandomStreams getRandomStreams() {
+        return streams;
+    }
+
+    /**
+     * @param arm One of {@link ExperimentSummary#INITIAL}, {@link ExperimentSummary#WITH_WEDDING} and
+     *            {@link ExperimentSummary#WITHOUT_WEDDING}.
+     * @return Initial population or current population of arm.
+     */
+    public Population getPopulation(int arm) {
+        switch (arm) {
+            case ExperimentSummary.INITIAL:
+                return population;
+
+            case ExperimentSummary.WITH_WEDDING:
+                return newPopulationWithWedding;
+
+            case ExperimentSummary.WITHOUT_WEDDING:
+                return newPopulationWithoutWedding;
+
+            default:
+                throw new IllegalArgumentException("Unknown arm " + arm);
+        }
+    }
+
+    /**
+     * @return Publisher of summaries of each generation of both populations, completed when evolution ends.
+     */
+    public GenerationPublisher getPublisher() {
+        return publisher;
+    }
+
+    /**
+     * @param publisher Publisher of summaries, e.g. with own executor or queue capacity.
+     */
+    public void setPublisher(GenerationPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    /**
+     * @param arm 0 for population with wedding, 1 for population without wedding.
+     * @return Number of finished generations of population.
+     */
+    public int getGeneration(int arm) {
+        return generations[arm];
+    }
+
+    /**
+     * Starts writing state of evolution to checkpoint file, current state is written at once and then every interval
+     * generations of each population, as well as after the last one. Checkpoint is closed after the last generation.
+     *
+     * @param file     Checkpoint file, overwritten when it exists.
+     * @param interval Number of generations between two writes of each population.
+     * @throws IOException When file cannot be created.
+     * @see Evolution#resume(Path, int)
+     */
+    public void setCheckpoint(Path file, int interval) throws IOException {
+        closeCheckpoint();
+        checkpoint = Checkpoint.create(file, this, interval);
+    }
+
+    /**
+     * Waits for pending writes and stops writing checkpoint.
+     *
+     * @throws IOException When one of writes failed.
+     */
+    public void closeCheckpoint() throws IOException {
+        if (checkpoint != null) {
+            Checkpoint closed = checkpoint;
+            checkpoint = null;
+            closed.close();
+        }
+    }
+
     /**
      * @param i Number of i function.
      * @param j Number of dimension.
@@ -126,18 +362,255 @@ public class Evolution {
     }
 
 
+    /**
+     * Sets parallel evaluation of children in both populations, with and without wedding.
+     *
+     * @param evaluationPool Pool evaluating children, null to evaluate them sequentially.
+     * @see Population#setEvaluationPool(ForkJoinPool)
+     */
+    public void setEvaluationPool(ForkJoinPool evaluationPool) {
+        newPopulationWithWedding.setEvaluationPool(evaluationPool);
+        newPopulationWithoutWedding.setEvaluationPool(evaluationPool);
+    }
+
+    /**
+     * Sets sparse mutation of children in both populations.
+     *
+     * @param sparseGenes     Number of mutated genes of individual, 0 to mutate all genes.
+     * @param refreshInterval Number of generations between full counting of whole populations.
+     * @see Population#setSparseMutation(int, int)
+     */
+    public void setSparseMutation(int sparseGenes, int refreshInterval) {
+        newPopulationWithWedding.setSparseMutation(sparseGenes, refreshInterval);
+        newPopulationWithoutWedding.setSparseMutation(sparseGenes, refreshInterval);
+    }
+
+    /**
+     * Sets strategy choosing parents of children, each population gets its own copy.
+     *
+     * @param selection Selection strategy, roulette wheel by default.
+     */
+    public void setSelectionStrategy(SelectionStrategy selection) {
+        newPopulationWithWedding.setSelectionStrategy(selection.copy());
+        newPopulationWithoutWedding.setSelectionStrategy(selection.copy());
+    }
+
+    /**
+     * @param survivorSelection Mode of choosing survivors in both populations.
+     * @see Population#setSurvivorSelection(SurvivorSelection)
+     */
+    public void setSurvivorSelection(SurvivorSelection survivorSelection) {
+        newPopulationWithWedding.setSurvivorSelection(survivorSelection);
+        newPopulationWithoutWedding.setSurvivorSelection(survivorSelection);
+    }
+
+    /**
+     * Adds criterion stopping a population before repeatNum generations, a population stops when any criterion is met.
+     *
+     * @param criterion Termination criterion.
+     */
+    public void addTerminationCriterion(TerminationCriterion criterion) {
+        termination.add(criterion);
+    }
+
+    /**
+     * @param arm 0 for population with wedding, 1 for population without wedding.
+     * @return Criterion which stopped population early, null when it was not stopped by any criterion.
+     */
+    public TerminationCriterion getStoppedBy(int arm) {
+        return stoppedBy[arm];
+    }
+
+    /**
+     * @param arm 0 for population with wedding, 1 for population without wedding.
+     * @return Progress of population, null before evolution started or when there are no termination criteria.
+     */
+    public EvolutionProgress getProgress(int arm) {
+        return progress[arm];
+    }
+
+    /**
+     * @return True when evolution was cancelled.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+
     /*----- Methods -----*/
 
     /**
-     * Performs evolution on population n times.
+     * Asks evolution to stop, it may be called from any thread. Each population finishes its current generation and
+     * stops, so both keep the best individuals found so far.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Performs evolution on population n times, or fewer when a termination criterion is met or evolution is cancelled.
+     * In concurrent mode population with wedding evolves on a new thread and population without wedding on the calling one,
+     * they share nothing but the read-only initial genomes and join after the last generation.
      */
     public void performEvolution() {
-        for (int i = 0; i < repeatNum; ++i) {
-            newPopulationWithWedding = newPopulationWithWedding.performEvolution(childrenCount, isWedding[0], mutationProbability);
-            newPopulationWithoutWedding = newPopulationWithoutWedding.performEvolution(childrenCount, isWedding[1], mutationProbability);
+        if (!termination.isEmpty()) {
+            long start = System.nanoTime();
+            for (int arm = 0; arm < 2; ++arm) {
+                if (progress[arm] == null) {
+                    progress[arm] = new EvolutionProgress(arm, getPopulation(arm + 1), start);
+                }
+            }
+        }
+
+        try {
+            if (concurrentArms) {
+                performConcurrently();
+            } else {
+                performSequentially();
+            }
+        } finally {
+            // Checkpoint and publisher are closed also when a generation fails
+            finish();
+        }
+    }
+
+    private void performSequentially() {
+        while (isRunning(0) || isRunning(1)) {
+            if (isRunning(0)) {
+                performGeneration(0);
+            }
+            if (isRunning(1)) {
+                performGeneration(1);
+            }
+        }
+    }
+
+    private void performConcurrently() {
+        AtomicBoolean abandoned = new AtomicBoolean();
+        FutureTask<Void> weddingArm = new FutureTask<>(() -> {
+            while (isRunning(0) && !abandoned.get()) {
+                performGeneration(0);
+            }
+            return null;
+        });
+        Thread thread = new Thread(weddingArm, "evolution-wedding-arm");
+        thread.start();
+
+        try {
+            while (isRunning(1)) {
+                performGeneration(1);
+            }
+            weddingArm.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for population with wedding", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            if (!weddingArm.isDone()) {
+                // Calling arm failed or was interrupted, population with wedding stops after its current generation
+                // and is joined, so checkpoint and publisher are not closed while it still uses them
+                abandoned.set(true);
+                joinUninterruptibly(thread);
+            }
+        }
+    }
+
+    private static void joinUninterruptibly(Thread thread) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
         }
     }
 
+    /**
+     * Performs one generation of population with or without wedding, hands its state to checkpoint and publishes
+     * its summary when any subscriber samples the generation.
+     *
+     * @param arm 0 for population with wedding, 1 for population without wedding.
+     */
+    private void performGeneration(int arm) {
+        long start = System.nanoTime();
+        Population evolved;
+        if (arm == 0) {
+            evolved = newPopulationWithWedding = newPopulationWithWedding.performEvolution(childrenCount, isWedding[0], mutationProbability);
+        } else {
+            evolved = newPopulationWithoutWedding = newPopulationWithoutWedding.performEvolution(childrenCount, isWedding[1], mutationProbability);
+        }
+        int generation = ++generations[arm];
+        long nanos = System.nanoTime() - start;
+
+        if (progress[arm] != null) {
+            progress[arm].update(evolved, generation);
+            for (TerminationCriterion criterion : termination) {
+                if (criterion.isMet(progress[arm])) {
+                    stoppedBy[arm] = criterion;
+                    break;
+                }
+            }
+        }
+
+        if (checkpoint != null) {
+            checkpoint.generationDone(arm, generation, !isRunning(arm), evolved);
+        }
+        if (publisher.isWanted(generation)) {
+            publisher.publish(GenerationSummary.of(isWedding[arm], generation, evolved, nanos));
+        }
+    }
+
+    private boolean isRunning(int arm) {
+        return generations[arm] < repeatNum && stoppedBy[arm] == null && !cancelled;
+    }
+
+    private void finish() {
+        publisher.close();
+        try {
+            closeCheckpoint();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Copies whole state of evolution, used to create checkpoint file.
+     *
+     * @return State of evolution.
+     */
+    Checkpoint.State captureState() {
+        Checkpoint.State state = new Checkpoint.State();
+        state.seed = streams.getSeed();
+        state.mi = mi;
+        state.childrenCount = childrenCount;
+        state.dim = dim;
+        state.funcNum = funcNum;
+        state.repeatNum = repeatNum;
+        state.mutationProbability = mutationProbability;
+        state.N = N;
+        state.sigma = sigma;
+        state.lambda = lambda;
+        state.g = g;
+        state.bias = bias;
+        state.optimum = optimum;
+        state.initial = Checkpoint.PopulationState.capture(population, 0);
+        state.withWedding = Checkpoint.PopulationState.capture(newPopulationWithWedding, generations[0]);
+        state.withoutWedding = Checkpoint.PopulationState.capture(newPopulationWithoutWedding, generations[1]);
+        return state;
+    }
+
     /**
      * @param all Additional parameter to show x and sigma arrays of all population.
      */
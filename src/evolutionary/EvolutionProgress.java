@@ -0,0 +1,166 @@
+package evolutionary;
+
+import java.util.Arrays;
+
+/**
+ * Progress of one population of evolution, updated after each generation and read by termination criteria.
+ * Diversity is counted only when some criterion asks for it, once per generation.
+ */
+public class EvolutionProgress {
+    private final int arm;
+    private final long startNanos;
+    private Population population;
+    private int generation = 0;
+    private double best;
+    private double bestSoFar;
+    private int generationsWithoutImprovement = 0;
+    private long evaluations = 0;
+    private double diversity = Double.NaN;
+    private double[] centroid = new double[0];
+
+
+    /*----- Constructors -----*/
+
+    /**
+     * @param arm        0 for population with wedding, 1 for population without wedding.
+     * @param population Population before the first generation.
+     * @param startNanos Value of {@link System#nanoTime()} when evolution started.
+     */
+    EvolutionProgress(int arm, Population population, long startNanos) {
+        this.arm = arm;
+        this.population = population;
+        this.startNanos = startNanos;
+        this.best = population.getBestIndividual();
+        this.bestSoFar = best;
+        this.evaluations = population.getEvaluations();
+    }
+
+
+    /*----- Getters & setters -----*/
+
+    /**
+     * @return 0 for population with wedding, 1 for population without wedding.
+     */
+    public int getArm() {
+        return arm;
+    }
+
+    /**
+     * @return Number of finished generations.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @return The best objective function value of current population.
+     */
+    public double getBest() {
+        return best;
+    }
+
+    /**
+     * @return The best objective function value of all generations so far.
+     */
+    public double getBestSoFar() {
+        return bestSoFar;
+    }
+
+    /**
+     * @return Number of the last generations which did not improve the best value so far.
+     */
+    public int getGenerationsWithoutImprovement() {
+        return generationsWithoutImprovement;
+    }
+
+    /**
+     * @return Number of objective function evaluations of population since it was created.
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * @return Nanoseconds since evolution started.
+     */
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * @return Value of {@link System#nanoTime()} when evolution started.
+     */
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    /**
+     * Root mean square Euclidean distance of individuals from centroid of population, counted at most once per
+     * generation in two passes: centroid first, then squared distances from it. Subtracting the centroid before
+     * squaring keeps the result accurate when population has collapsed far from the origin.
+     *
+     * @return Diversity of current population.
+     */
+    public double getDiversity() {
+        if (Double.isNaN(diversity)) {
+            diversity = countDiversity(population.getStore());
+        }
+        return diversity;
+    }
+
+
+    /*----- Methods -----*/
+
+    /**
+     * @param population Population after the generation.
+     * @param generation Number of finished generations.
+     */
+    void update(Population population, int generation) {
+        this.population = population;
+        this.generation = generation;
+        this.best = population.getBestIndividual();
+        this.evaluations = population.getEvaluations();
+        this.diversity = Double.NaN;
+
+        if (best < bestSoFar) {
+            generationsWithoutImprovement = 0;
+        } else {
+            ++generationsWithoutImprovement;
+        }
+        bestSoFar = Math.min(bestSoFar, best);
+    }
+
+    private double countDiversity(PopulationStore store) {
+        int size = store.getSize();
+        int dim = store.getDimension();
+        if (size == 0) {
+            return 0;
+        }
+        if (centroid.length != dim) {
+            centroid = new double[dim];
+        }
+
+        double[] x = store.getX();
+        Arrays.fill(centroid, 0);
+        for (int i = 0; i < size; ++i) {
+            int offset = store.offset(i);
+            for (int j = 0; j < dim; ++j) {
+                centroid[j] += x[offset + j];
+            }
+        }
+        for (int j = 0; j < dim; ++j) {
+            centroid[j] /= size;
+        }
+
+        double squares = 0;
+        for (int i = 0; i < size; ++i) {
+            int offset = store.offset(i);
+            for (int j = 0; j < dim; ++j) {
+                double d = x[offset + j] - centroid[j];
+                squares += d * d;
+            }
+        }
+        return Math.sqrt(squares / size);
+    }
+
+}
@@ -0,0 +1,276 @@
+package evolutionary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Declarative grid of experiments: every combination of objective function, mutation probability, population size,
+ * dimension and number of generations is a cell, which is run given number of times.
+ * Evolutions are created only when their run starts and are folded into summary of their cell as soon as they
+ * finish, only the first few runs of each cell are kept for detailed printing. Memory therefore depends on number of
+ * cells and worker threads, not on number of runs.
+ */
+public class ExperimentGrid {
+    private final Map<Integer, String> functions = new LinkedHashMap<>();
+    private double[] mutationProbabilities = new double[]{0.5};
+    private final List<int[]> populationSizes = new ArrayList<>();
+    private int[] dimensions = new int[]{8};
+    private int[] generations = new int[]{75};
+    private int runs = 25;
+    private int detailedRuns = 1;
+
+    /**
+     * Combination of parameters run several times.
+     */
+    public static class Cell {
+        private final String name;
+        private final int funcNum;
+        private final double mutationProbability;
+        private final int mi;
+        private final int childrenCount;
+        private final int dim;
+        private final int repeatNum;
+
+        Cell(String name, int funcNum, double mutationProbability, int mi, int childrenCount, int dim, int repeatNum) {
+            this.name = name;
+            this.funcNum = funcNum;
+            this.mutationProbability = mutationProbability;
+            this.mi = mi;
+            this.childrenCount = childrenCount;
+            this.dim = dim;
+            this.repeatNum = repeatNum;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getFuncNum() {
+            return funcNum;
+        }
+
+        public double getMutationProbability() {
+            return mutationProbability;
+        }
+
+        public int getMi() {
+            return mi;
+        }
+
+        public int getChildrenCount() {
+            return childrenCount;
+        }
+
+        public int getDimension() {
+            return dim;
+        }
+
+        public int getRepeatNum() {
+            return repeatNum;
+        }
+    }
+
+    /**
+     * Summaries of all cells and runs kept for detailed printing, filled while grid runs.
+     */
+    public static class Result {
+        private final List<Cell> cells;
+        private final Map<String, ExperimentSummary> summaries = new ConcurrentHashMap<>();
+        private final Map<String, Evolution[]> detailed = new ConcurrentHashMap<>();
+
+        Result(List<Cell> cells, int detailedRuns) {
+            this.cells = cells;
+            for (Cell cell : cells) {
+                summaries.put(cell.name, new ExperimentSummary());
+                detailed.put(cell.name, new Evolution[detailedRuns]);
+            }
+        }
+
+        /**
+         * @return Cells in order of definition.
+         */
+        public List<Cell> getCells() {
+            return cells;
+        }
+
+        /**
+         * @param cell Cell of grid.
+         * @return Summary of all runs of cell.
+         */
+        public ExperimentSummary getSummary(Cell cell) {
+            return summaries.get(cell.name);
+        }
+
+        /**
+         * @param cell Cell of grid.
+         * @return The first runs of cell, kept for detailed printing.
+         */
+        public Evolution[] getDetailed(Cell cell) {
+            return detailed.get(cell.name).clone();
+        }
+
+        void runFinished(String group, int index, Evolution evolution) {
+            summaries.get(group).add(evolution);
+
+            Evolution[] kept = detailed.get(group);
+            if (index < kept.length) {
+                kept[index] = evolution;
+            }
+        }
+    }
+
+
+    /*----- Getters & setters -----*/
+
+    /**
+     * @param funcNum Number of objective function.
+     * @param name    Name of function used in names of cells.
+     */
+    public void addFunction(int funcNum, String name) {
+        functions.put(funcNum, name);
+    }
+
+    /**
+     * @param mutationProbabilities Probabilities of performing mutations, 0.5 by default.
+     */
+    public void setMutationProbabilities(double... mutationProbabilities) {
+        this.mutationProbabilities = mutationProbabilities.clone();
+    }
+
+    /**
+     * Adds pair of population sizes, mi = 1000 and lambda = 1500 are used when no pair is added.
+     *
+     * @param mi            Size of the initial population.
+     * @param childrenCount Size of children population, lambda.
+     */
+    public void addPopulationSize(int mi, int childrenCount) {
+        populationSizes.add(new int[]{mi, childrenCount});
+    }
+
+    /**
+     * @param dimensions Dimensions of x and sigma array, 8 by default.
+     */
+    public void setDimensions(int... dimensions) {
+        this.dimensions = dimensions.clone();
+    }
+
+    /**
+     * @param generations Numbers of generations of each evolution, 75 by default.
+     */
+    public void setGenerations(int... generations) {
+        this.generations = generations.clone();
+    }
+
+    /**
+     * @param runs Number of independent evolutions of each cell, 25 by default.
+     */
+    public void setRuns(int runs) {
+        this.runs = runs;
+    }
+
+    /**
+     * @param detailedRuns Number of the first evolutions of each cell kept for detailed printing, 1 by default.
+     */
+    public void setDetailedRuns(int detailedRuns) {
+        this.detailedRuns = detailedRuns;
+    }
+
+    /**
+     * @return Number of independent evolutions of each cell.
+     */
+    public int getRuns() {
+        return runs;
+    }
+
+
+    /*----- Methods -----*/
+
+    /**
+     * Cells are named by function and mutation probability, other parameters are added to name only when the grid
+     * has more than one value of them.
+     *
+     * @return Cells of grid in order of definition, function first.
+     */
+    public List<Cell> cells() {
+        List<int[]> sizes = populationSizes.isEmpty() ? List.of(new int[]{1000, 1500}) : populationSizes;
+        List<Cell> cells = new ArrayList<>();
+
+        for (Map.Entry<Integer, String> function : functions.entrySet()) {
+            for (double mp : mutationProbabilities) {
+                for (int[] size : sizes) {
+                    for (int dim : dimensions) {
+                        for (int repeatNum : generations) {
+                            StringBuilder name = new StringBuilder(function.getValue());
+                            name.append(" (Mutation Probability = ").append(mp);
+                            if (sizes.size() > 1) {
+                                name.append(", mi = ").append(size[0]).append(", lambda = ").append(size[1]);
+                            }
+                            if (dimensions.length > 1) {
+                                name.append(", dimension = ").append(dim);
+                            }
+                            if (generations.length > 1) {
+                                name.append(", generations = ").append(repeatNum);
+                            }
+                            name.append(")");
+
+                            cells.add(new Cell(name.toString(), function.getKey(), mp, size[0], size[1], dim,
+                                    repeatNum));
+                        }
+                    }
+                }
+            }
+        }
+
+        return Collections.unmodifiableList(cells);
+    }
+
+    /**
+     * Runs every cell given number of times and waits for all runs.
+     *
+     * @param runner Runner performing evolutions.
+     * @return Summaries of cells and kept runs.
+     */
+    public Result run(ExperimentRunner runner) {
+        return run(runner, null);
+    }
+
+    /**
+     * Runs every cell given number of times and waits for all runs.
+     *
+     * @param runner   Runner performing evolutions.
+     * @param listener Additionally notified about every run, e.g. {@link ResultsRecorder}, may be null.
+     * @return Summaries of cells and kept runs.
+     */
+    public Result run(ExperimentRunner runner, ExperimentRunner.Listener listener) {
+        List<Cell> cells = cells();
+        Result result = new Result(cells, Math.min(detailedRuns, runs));
+
+        for (Cell cell : cells) {
+            runner.add(cell.name, cell.mi, cell.childrenCount, cell.dim, cell.funcNum, cell.repeatNum,
+                    cell.mutationProbability, runs);
+        }
+        runner.run(new ExperimentRunner.Listener() {
+            @Override
+            public void runStarted(String group, int index, Evolution evolution) {
+                if (listener != null) {
+                    listener.runStarted(group, index, evolution);
+                }
+            }
+
+            @Override
+            public void runFinished(String group, int index, Evolution evolution) {
+                result.runFinished(group, index, evolution);
+                if (listener != null) {
+                    listener.runFinished(group, index, evolution);
+                }
+            }
+        });
+
+        return result;
+    }
+
+}
@@ -0,0 +1,278 @@
+package evolutionary;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs independent evolutions on a work-stealing pool.
+ * Runs are started from the most expensive one, so long runs (e.g. composition functions) do not end up last
+ * on one worker while other workers are idle. Every run is reported to listener as soon as it finishes.
+ * Seed of each run is derived from master seed of runner, ordinal of its group (in order groups were first added) and
+ * number of run, so results do not depend on parallelism or order of execution.
+ * Only a few runs per worker are submitted ahead, evolution of a run is created when it starts and released after
+ * listener returns, so memory does not grow with number of runs.
+ */
+public class ExperimentRunner {
+    private final ForkJoinPool pool;
+    private final RandomStreams streams;
+    private final ArrayList<Run> runs = new ArrayList<>();
+    private final HashMap<String, Integer> groupSizes = new HashMap<>();
+    private final HashMap<String, Integer> groupOrdinals = new HashMap<>();
+    private final ArrayList<TerminationCriterion> termination = new ArrayList<>();
+
+    /**
+     * Listener notified about every finished run, may be called from many threads at once.
+     */
+    public interface Listener {
+        /**
+         * Called before evolution starts, e.g. to subscribe to its publisher.
+         *
+         * @param group     Name of group the run belongs to.
+         * @param index     Number of run in its group, in order of adding.
+         * @param evolution Evolution about to start.
+         */
+        default void runStarted(String group, int index, Evolution evolution) {
+        }
+
+        /**
+         * @param group     Name of group the run belongs to.
+         * @param index     Number of run in its group, in order of adding.
+         * @param evolution Finished evolution.
+         */
+        void runFinished(String group, int index, Evolution evolution);
+    }
+
+    /**
+     * Parameters of consecutive evolutions of a group waiting for execution.
+     */
+    private static class Run {
+        private final String group;
+        private final int ordinal;
+        private final int index;
+        private final int count;
+        private final int mi;
+        private final int childrenCount;
+        private final int dim;
+        private final int funcNum;
+        private final int repeatNum;
+        private final double mutationProbability;
+        private final double cost;
+
+        Run(String group, int ordinal, int index, int count, int mi, int childrenCount, int dim, int funcNum, int repeatNum,
+            double mutationProbability) {
+            this.group = group;
+            this.ordinal = ordinal;
+            this.index = index;
+            this.count = count;
+            this.mi = mi;
+            this.childrenCount = childrenCount;
+            this.dim = dim;
+            this.funcNum = funcNum;
+            this.repeatNum = repeatNum;
+            this.mutationProbability = mutationProbability;
+            this.cost = estimateCost(mi, childrenCount, dim, funcNum, repeatNum, mutationProbability);
+        }
+    }
+
+
+    /*----- Constructors -----*/
+
+    /**
+     * Runner using all available processors.
+     */
+    public ExperimentRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism Number of worker threads.
+     */
+    public ExperimentRunner(int parallelism) {
+        this(parallelism, RandomStreams.randomSeed());
+    }
+
+    /**
+     * @param parallelism Number of worker threads.
+     * @param seed        Master seed of all runs.
+     */
+    public ExperimentRunner(int parallelism, long seed) {
+        pool = new ForkJoinPool(parallelism);
+        streams = new RandomStreams(seed);
+    }
+
+
+    /*----- Getters & setters -----*/
+
+    /**
+     * @return Master seed of all runs.
+     */
+    public long getSeed() {
+        return streams.getSeed();
+    }
+
+    /**
+     * Adds criterion stopping populations of every run early, e.g. when they stagnate.
+     *
+     * @param criterion Termination criterion shared by all runs.
+     * @see Evolution#addTerminationCriterion(TerminationCriterion)
+     */
+    public void addTerminationCriterion(TerminationCriterion criterion) {
+        termination.add(criterion);
+    }
+
+
+    /*----- Methods -----*/
+
+    /**
+     * Adds run of evolution, evolution itself is created when the run starts.
+     *
+     * @param group               Name of group, used to number runs and passed to listener, its seeds depend on
+     *                            order in which groups were first added, not on name.
+     * @param mi                  Size of the initial population.
+     * @param childrenCount       Size of children population.
+     * @param dim                 Dimension of x and sigma array.
+     * @param funcNum             Number of objective function.
+     * @param repeatNum           Number of evolutions.
+     * @param mutationProbability Probability of performing mutations.
+     * @see Evolution#Evolution(int, int, int, int, int, double)
+     */
+    public void add(String group, int mi, int childrenCount, int dim, int funcNum, int repeatNum, double mutationProbability) {
+        add(group, mi, childrenCount, dim, funcNum, repeatNum, mutationProbability, 1);
+    }
+
+    /**
+     * Adds independent runs of evolution with the same parameters, numbered consecutively in their group.
+     *
+     * @param group               Name of group, used to number runs and passed to listener, its seeds depend on
+     *                            order in which groups were first added, not on name.
+     * @param mi                  Size of the initial population.
+     * @param childrenCount       Size of children population.
+     * @param dim                 Dimension of x and sigma array.
+     * @param funcNum             Number of objective function.
+     * @param repeatNum           Number of evolutions.
+     * @param mutationProbability Probability of performing mutations.
+     * @param count               Number of runs.
+     */
+    public void add(String group, int mi, int childrenCount, int dim, int funcNum, int repeatNum, double mutationProbability,
+                    int count) {
+        if (count < 1) {
+            return;
+        }
+
+        int ordinal = groupOrdinals.computeIfAbsent(group, g -> groupOrdinals.size());
+        int index = groupSizes.getOrDefault(group, 0);
+        groupSizes.put(group, index + count);
+
+        runs.add(new Run(group, ordinal, index, count, mi, childrenCount, dim, funcNum, repeatNum, mutationProbability));
+    }
+
+    /**
+     * Performs all added runs and waits for them. Added runs are cleared afterwards.
+     *
+     * @param listener Notified about every finished run.
+     */
+    public void run(Listener listener) {
+        ArrayList<Run> sorted = new ArrayList<>(runs);
+        runs.clear();
+        groupSizes.clear();
+        groupOrdinals.clear();
+
+        // Longest processing time first
+        sorted.sort(Comparator.comparingDouble((Run r) -> r.cost).reversed());
+
+        // Runs submitted to pool are bounded, a new one waits until any of them finishes
+        Semaphore slots = new Semaphore(2 * pool.getParallelism());
+        ArrayList<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (Run run : sorted) {
+            for (int k = 0; k < run.count; ++k) {
+                int index = run.index + k;
+                slots.acquireUninterruptibly();
+                tasks.removeIf(this::joinIfDone);
+
+                tasks.add(pool.submit(() -> {
+                    try {
+                        long seed = streams.seed(RandomStreams.RUN, run.ordinal, index);
+                        Evolution evolution = new Evolution(run.mi, run.childrenCount, run.dim, run.funcNum, run.repeatNum, run.mutationProbability, seed);
+                        for (TerminationCriterion criterion : termination) {
+                            evolution.addTerminationCriterion(criterion);
+                        }
+                        listener.runStarted(run.group, index, evolution);
+                        evolution.performEvolution();
+                        listener.runFinished(run.group, index, evolution);
+                    } finally {
+                        slots.release();
+                    }
+                }));
+            }
+        }
+
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+    }
+
+    /**
+     * Joins finished task, so that failure of a run is thrown as soon as it is noticed.
+     *
+     * @return True when task finished.
+     */
+    private boolean joinIfDone(ForkJoinTask<?> task) {
+        if (task.isDone()) {
+            task.join();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Stops worker threads.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Estimates relative cost of evolution, used only to order runs.
+     *
+     * @return Estimated cost in units of one gene operation.
+     */
+    static double estimateCost(int mi, int childrenCount, int dim, int funcNum, int repeatNum, double mutationProbability) {
+        double evaluations = mi + repeatNum * childrenCount * mutationProbability;
+        double selection = repeatNum * (mi + childrenCount) * (dim + Math.log(mi + childrenCount));
+        return evaluations * dim * functionCost(funcNum) + selection;
+    }
+
+    /**
+     * @param funcNum Number of objective function.
+     * @return Relative cost of objective function per gene.
+     */
+    static double functionCost(int funcNum) {
+        switch (funcNum) {
+            // Weierstrass Function, 21 cosines per gene
+            case 6:
+                return 45;
+
+            // Composition Function 1
+            case 23:
+                return 5 * 3 + functionCost(4) + functionCost(1) + functionCost(2) + functionCost(3) + functionCost(1);
+
+            // Composition Function 5
+            case 27:
+                return 5 * 3 + functionCost(12) + functionCost(8) + functionCost(9) + functionCost(6) + functionCost(1);
+
+            case 1:
+            case 7:
+            case 8:
+            case 9:
+                return 3;
+
+            default:
+                return 1;
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+package evolutionary;
+
+/**
+ * Summary of group of evolutions, updated by each evolution as soon as it finishes.
+ * For every arm (initial population, population with wedding and without wedding) it keeps streaming statistics of
+ * the best and the worst objective function values of evolutions. Can be fed from many threads at once without
+ * contending on one lock, see {@link StripedStatistics}.
+ */
+public class ExperimentSummary {
+    public static final int INITIAL = 0;
+    public static final int WITH_WEDDING = 1;
+    public static final int WITHOUT_WEDDING = 2;
+
+    private final StripedStatistics[] best = new StripedStatistics[3];
+    private final StripedStatistics[] worst = new StripedStatistics[3];
+
+
+    /*----- Constructors -----*/
+
+    public ExperimentSummary() {
+        for (int arm = 0; arm < 3; ++arm) {
+            best[arm] = new StripedStatistics();
+            worst[arm] = new StripedStatistics();
+        }
+    }
+
+
+    /*----- Getters & setters -----*/
+
+    /**
+     * @return Number of evolutions added to summary.
+     */
+    public int getCount() {
+        return (int) best[INITIAL].snapshot().getCount();
+    }
+
+    /**
+     * @param arm One of {@link #INITIAL}, {@link #WITH_WEDDING} and {@link #WITHOUT_WEDDING}.
+     * @return Statistics of the best objective function values of evolutions in arm.
+     */
+    public RunningStatistics getBest(int arm) {
+        return best[arm].snapshot();
+    }
+
+    /**
+     * @param arm One of {@link #INITIAL}, {@link #WITH_WEDDING} and {@link #WITHOUT_WEDDING}.
+     * @return Statistics of the worst objective function values of evolutions in arm.
+     */
+    public RunningStatistics getWorst(int arm) {
+        return worst[arm].snapshot();
+    }
+
+    /**
+     * Array of:
+     * 0 - 2 mean of the best individuals of initial population, population with wedding and without wedding,
+     * 3 - 8 the best and the worst individual of initial population, population with wedding and without wedding.
+     *
+     * @return Array of means, the best and the worst values of all arms.
+     */
+    public double[] getInfo() {
+        double[] info = new double[9];
+
+        for (int arm = 0; arm < 3; ++arm) {
+            RunningStatistics bestStatistics = best[arm].snapshot();
+            info[arm] = bestStatistics.getMean();
+            info[3 + 2 * arm] = bestStatistics.getCount() > 0 ? bestStatistics.getMin() : 10e10;
+            info[4 + 2 * arm] = Math.max(0, worst[arm].snapshot().getMax());
+        }
+
+        return info;
+    }
+
+
+    /*----- Methods -----*/
+
+    /**
+     * Folds best and worst individuals of finished evolution into summary.
+     *
+     * @param evolution Finished evolution.
+     */
+    public void add(Evolution evolution) {
+        double[] bestValues = evolution.bestObjFuncValIndividual();
+        double[] worstValues = evolution.worstObjFuncValIndividual();
+
+        for (int arm = 0; arm < 3; ++arm) {
+            add(arm, bestValues[arm], worstValues[arm]);
+        }
+    }
+
+    /**
+     * Folds final values of one arm of evolution into summary, e.g. read back from results.
+     *
+     * @param arm   One of {@link #INITIAL}, {@link #WITH_WEDDING} and {@link #WITHOUT_WEDDING}.
+     * @param best  The best objective function value of population.
+     * @param worst The worst objective function value of population.
+     */
+    public void add(int arm, double best, double worst) {
+        this.best[arm].add(best);
+        this.worst[arm].add(worst);
+    }
+
+}
@@ -0,0 +1,436 @@
+package evolutionary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Objective function evaluated by a pool of long-lived local worker processes, e.g. external simulators.
+ * A batch of rows is split into requests of a few rows, each request is sent by its own virtual thread (a cached pool
+ * of platform threads before Java 21) to the worker with the fewest requests in flight. Requests are pipelined:
+ * a worker may have several of them queued and answers them in order. A semaphore limits number of requests in flight.
+ * A request which is not answered in time, or whose worker failed, is retried on another worker, a failed worker is
+ * killed and started again.
+ * <p>
+ * Protocol over standard input and output of worker, all numbers big-endian:
+ * request is id (int), number of rows (int), dimension (int) and genes of rows (doubles);
+ * response is id (int) and number of rows (int) followed by their values (doubles), or -1 and error message
+ * (modified UTF-8) when worker cannot evaluate the request. See {@link ObjectiveWorker}.
+ */
+public class ExternalObjectiveFunction implements ObjectiveFunction, Closeable {
+    private final List<String> command;
+    private final Worker[] workers;
+    private final ExecutorService executor = newExecutor();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final Permits inFlight;
+    private int maxInFlight;
+    private int batchSize = 16;
+    private long timeoutNanos = TimeUnit.SECONDS.toNanos(30);
+    private int retries = 2;
+    private volatile boolean closed = false;
+
+
+    /*----- Constructors -----*/
+
+    /**
+     * Starts worker processes.
+     *
+     * @param command Command starting one worker process.
+     * @param workers Number of worker processes.
+     * @throws IOException When a worker cannot be started.
+     */
+    public ExternalObjectiveFunction(List<String> command, int workers) throws IOException {
+        if (workers < 1) {
+            throw new IllegalArgumentException("There must be at least one worker");
+        }
+
+        this.command = List.copyOf(command);
+        this.workers = new Worker[workers];
+        this.maxInFlight = 4 * workers;
+        this.inFlight = new Permits(maxInFlight);
+
+        for (int i = 0; i < workers; ++i) {
+            this.workers[i] = new Worker(i);
+        }
+    }
+
+
+    /*----- Getters & setters -----*/
+
+    /**
+     * Requests already in flight are not affected, lower limit applies once enough of them are answered.
+     *
+     * @param maxInFlight Maximum number of requests sent and not answered yet, 4 per worker by default.
+     */
+    public synchronized void setMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("At least one request must be allowed in flight");
+        }
+
+        int change = maxInFlight - this.maxInFlight;
+        if (change > 0) {
+            inFlight.release(change);
+        } else {
+            inFlight.reduce(-change);
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * @param batchSize Maximum number of rows sent in one request, 16 by default.
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param timeout Time a worker has to answer one request, 30 seconds by default.
+     */
+    public void setTimeout(Duration timeout) {
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    /**
+     * @param retries Number of times a failed request is sent again, 2 by default.
+     */
+    public void setRetries(int retries) {
+        this.retries = retries;
+    }
+
+    /**
+     * @return Number of worker processes.
+     */
+    public int getWorkers() {
+        return workers.length;
+    }
+
+    /**
+     * @return Number of times a worker process was started again after it failed or was killed.
+     */
+    public int getRestarts() {
+        int restarts = 0;
+        for (Worker worker : workers) {
+            restarts += worker.restarts.get();
+        }
+        return restarts;
+    }
+
+
+    /*----- Methods -----*/
+
+    @Override
+    public double evaluate(double[] x, int offset, int dim) {
+        double[] genes = new double[dim];
+        System.arraycopy(x, offset, genes, 0, dim);
+        return request(genes, 1, dim)[0];
+    }
+
+    /**
+     * Sends rows in requests of at most batch size rows, all of them at once, and waits for all answers.
+     */
+    @Override
+    public void evaluateBatch(double[] x, int dim, int[] rows, int from, int to, double[] values) {
+        List<Future<?>> requests = new ArrayList<>();
+
+        for (int start = from; start < to; start += batchSize) {
+            int end = Math.min(start + batchSize, to);
+            int count = end - start;
+
+            // Genes are copied here, so request does not read array which evolution may change later
+            double[] genes = new double[count * dim];
+            for (int i = start; i < end; ++i) {
+                System.arraycopy(x, rows[i] * dim, genes, (i - start) * dim, dim);
+            }
+
+            int first = start;
+            requests.add(executor.submit(() -> {
+                double[] result = request(genes, count, dim);
+                for (int i = 0; i < count; ++i) {
+                    values[rows[first + i]] = result[i];
+                }
+            }));
+        }
+
+        for (Future<?> request : requests) {
+            try {
+                request.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for workers", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Kills all worker processes.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        executor.shutdownNow();
+        for (Worker worker : workers) {
+            worker.kill(new IOException("Objective function closed"));
+        }
+    }
+
+    /**
+     * Sends one request, retrying it on failure, and waits for its answer. The retry goes to another worker than the
+     * failed attempt, if there is another one. A request failed only because its worker was killed for another request
+     * which timed out is sent again without counting the attempt.
+     */
+    private double[] request(double[] genes, int count, int dim) {
+        IOException failure = null;
+        Worker failed = null;
+        int attempts = 0;
+
+        while (attempts <= retries) {
+            if (closed) {
+                throw new IllegalStateException("Objective function is closed");
+            }
+
+            inFlight.acquireUninterruptibly();
+            Worker worker = leastBusy(failed);
+            try {
+                return worker.call(nextId.getAndIncrement(), genes, count, dim)
+                        .get(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for worker", e);
+            } catch (TimeoutException e) {
+                failure = new IOException("Worker " + worker.index + " did not answer in time");
+                worker.kill(new WorkerKilled(worker.index));
+                failed = worker;
+                ++attempts;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof WorkerKilled) {
+                    continue;
+                }
+                failure = e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+                failed = worker;
+                ++attempts;
+            } finally {
+                inFlight.release();
+            }
+        }
+
+        throw new UncheckedIOException("Evaluation failed after " + (retries + 1) + " attempts", failure);
+    }
+
+    /**
+     * @param excluded Worker which failed the previous attempt, used only when it is the only worker.
+     * @return Worker with the fewest requests in flight.
+     */
+    private Worker leastBusy(Worker excluded) {
+        Worker best = null;
+        for (Worker worker : workers) {
+            if (worker != excluded && (best == null || worker.pending.size() < best.pending.size())) {
+                best = worker;
+            }
+        }
+        return best != null ? best : excluded;
+    }
+
+    /**
+     * @return Executor running each task on a new virtual thread when Java supports them, cached thread pool otherwise.
+     */
+    private static ExecutorService newExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "external-objective-request");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Semaphore whose number of permits can be lowered while they are held.
+     */
+    @SuppressWarnings("serial")
+    private static class Permits extends Semaphore {
+
+        Permits(int permits) {
+            super(permits);
+        }
+
+        void reduce(int permits) {
+            reducePermits(permits);
+        }
+    }
+
+    /**
+     * Failure of a request whose worker was killed because another request timed out.
+     */
+    @SuppressWarnings("serial")
+    private static class WorkerKilled extends IOException {
+
+        WorkerKilled(int index) {
+            super("Worker " + index + " was killed after another request timed out");
+        }
+    }
+
+    /**
+     * Request waiting for its answer.
+     */
+    private static class Call {
+        private final int count;
+        private final CompletableFuture<double[]> answer = new CompletableFuture<>();
+
+        Call(int count) {
+            this.count = count;
+        }
+    }
+
+    /**
+     * One worker process with requests waiting for its answers, started again after it failed.
+     */
+    private class Worker {
+        private final int index;
+        private final Map<Integer, Call> pending = new ConcurrentHashMap<>();
+        private final AtomicInteger restarts = new AtomicInteger();
+        // Null after process was killed or exited, started again by the next request
+        private Process process;
+        private DataOutputStream in;
+
+        Worker(int index) throws IOException {
+            this.index = index;
+            start();
+        }
+
+        private void start() throws IOException {
+            process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            in = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+
+            Process started = process;
+            Thread reader = new Thread(() -> read(started), "external-objective-worker-" + index);
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        /**
+         * Sends request, its answer completes returned future.
+         */
+        synchronized CompletableFuture<double[]> call(int id, double[] genes, int count, int dim) {
+            Call call = new Call(count);
+
+            try {
+                if (closed) {
+                    throw new IOException("Objective function closed");
+                }
+                if (process == null) {
+                    restarts.incrementAndGet();
+                    start();
+                }
+
+                pending.put(id, call);
+                in.writeInt(id);
+                in.writeInt(count);
+                in.writeInt(dim);
+                for (double gene : genes) {
+                    in.writeDouble(gene);
+                }
+                in.flush();
+            } catch (IOException e) {
+                pending.remove(id);
+                call.answer.completeExceptionally(e);
+                kill(e);
+            }
+
+            return call.answer;
+        }
+
+        /**
+         * Kills process and fails all its requests, the next request starts a new process.
+         */
+        synchronized void kill(IOException cause) {
+            if (process != null) {
+                process.destroyForcibly();
+                process = null;
+            }
+            failPending(cause);
+        }
+
+        private void failPending(IOException cause) {
+            for (Integer id : pending.keySet()) {
+                Call call = pending.remove(id);
+                if (call != null) {
+                    call.answer.completeExceptionally(cause);
+                }
+            }
+        }
+
+        /**
+         * Completes requests with answers of one process until it ends.
+         */
+        private void read(Process owner) {
+            try (DataInputStream out = new DataInputStream(new BufferedInputStream(owner.getInputStream()))) {
+                while (true) {
+                    int id = out.readInt();
+                    int count = out.readInt();
+                    Call call = pending.remove(id);
+
+                    if (count < 0) {
+                        String message = out.readUTF();
+                        if (call != null) {
+                            call.answer.completeExceptionally(new IOException("Worker " + index + " failed: " + message));
+                        }
+                        continue;
+                    }
+
+                    double[] result = new double[count];
+                    for (int i = 0; i < count; ++i) {
+                        result[i] = out.readDouble();
+                    }
+                    if (call == null) {
+                        continue;
+                    }
+                    if (count != call.count) {
+                        call.answer.completeExceptionally(new IOException(
+                                "Worker " + index + " answered " + count + " values for " + call.count + " rows"));
+                    } else {
+                        call.answer.complete(result);
+                    }
+                }
+            } catch (IOException e) {
+                // Process ended or was killed, its unanswered requests are failed below
+            }
+
+            synchronized (this) {
+                if (process == owner) {
+                    kill(new IOException("Worker " + index + " exited"));
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,193 @@
+package evolutionary;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of objective function values keyed on exact bit pattern of genome.
+ * Split into segments with their own lock and least recently used eviction, so parallel evaluation rarely contends.
+ * One cache should be used with one objective function only.
+ */
+public class FitnessCache {
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param capacity Maximum number of cached genomes.
+     */
+    public FitnessCache(int capacity) {
+        if (capacity < SEGMENTS) {
+            throw new IllegalArgumentException("Capacity must be at least " + SEGMENTS);
+        }
+
+        for (int i = 0; i < SEGMENTS; ++i) {
+            segments[i] = new Segment(capacity / SEGMENTS);
+        }
+    }
+
+
+    /*----- Getters & setters -----*/
+
+    /**
+     * @return Number of lookups which found a value.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Number of lookups which did not find a value.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Number of cached genomes.
+     */
+    public int getSize() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+
+    /*----- Methods -----*/
+
+    /**
+     * @param x      Flat array of genes.
+     * @param offset Index of the first gene.
+     * @param dim    Dimension of genome.
+     * @return Cached value, boxed when it was stored, or null when genome is not cached. NaN is a valid value.
+     */
+    public Double get(double[] x, int offset, int dim) {
+        int hash = hash(x, offset, dim);
+        Segment segment = segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+        Double value;
+
+        synchronized (segment) {
+            value = segment.get(segment.probe.set(x, offset, dim, hash));
+        }
+
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * @param x      Flat array of genes, genome is copied.
+     * @param offset Index of the first gene.
+     * @param dim    Dimension of genome.
+     * @param value  Objective function value of genome.
+     */
+    public void put(double[] x, int offset, int dim, double value) {
+        int hash = hash(x, offset, dim);
+        Segment segment = segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+        GenomeKey key = new GenomeKey().set(x, offset, dim, hash).detach();
+
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+    }
+
+    /**
+     * Removes all genomes and resets counters.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    private static int hash(double[] x, int offset, int dim) {
+        long h = 1;
+        for (int i = offset; i < offset + dim; ++i) {
+            h = 31 * h + Double.doubleToRawLongBits(x[i]);
+        }
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Least recently used map of one segment, probe key is reused for lookups under segment lock.
+     */
+    @SuppressWarnings("serial")
+    private static class Segment extends LinkedHashMap<GenomeKey, Double> {
+        private final int capacity;
+        private final GenomeKey probe = new GenomeKey();
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<GenomeKey, Double> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    /**
+     * Genome compared by bit pattern. Either views a row of flat array (probe) or owns a copy of it (stored key).
+     */
+    private static class GenomeKey {
+        private double[] x;
+        private int offset;
+        private int dim;
+        private int hash;
+
+        GenomeKey set(double[] x, int offset, int dim, int hash) {
+            this.x = x;
+            this.offset = offset;
+            this.dim = dim;
+            this.hash = hash;
+            return this;
+        }
+
+        GenomeKey detach() {
+            double[] copy = new double[dim];
+            System.arraycopy(x, offset, copy, 0, dim);
+            x = copy;
+            offset = 0;
+            return this;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof GenomeKey)) {
+                return false;
+            }
+
+            GenomeKey other = (GenomeKey) o;
+            if (hash != other.hash || dim != other.dim) {
+                return false;
+            }
+            for (int i = 0; i < dim; ++i) {
+                if (Double.doubleToRawLongBits(x[offset + i]) != Double.doubleToRawLongBits(other.x[other.offset + i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,260 @@
+package evolutionary;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes summaries of generations to subscribers without ever blocking the evolution thread.
+ * Every subscriber has its own bounded queue and is fed on executor as far as its demand allows.
+ * When a slow subscriber lets its queue fill up, the oldest summaries are dropped, so it always sees the latest state.
+ * A subscriber may ask only for every n-th generation.
+ */
+public class GenerationPublisher implements Flow.Publisher<GenerationSummary> {
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private final Executor executor;
+    private final int capacity;
+    private final CopyOnWriteArrayList<SummarySubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean closed = false;
+
+
+    /*----- Constructors -----*/
+
+    /**
+     * Publisher feeding subscribers on common fork-join pool, with queues of 256 summaries.
+     */
+    public GenerationPublisher() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param executor Executor calling subscribers.
+     * @param capacity Maximum number of summaries waiting for one subscriber.
+     */
+    public GenerationPublisher(Executor executor, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+
+        this.executor = executor;
+        this.capacity = capacity;
+    }
+
+
+    /*----- Getters & setters -----*/
+
+    /**
+     * @return True when any subscriber may want summaries.
+     */
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    /**
+     * @param generation Number of finished generations.
+     * @return True when summary of the generation would reach any subscriber, so it is worth counting.
+     */
+    public boolean isWanted(int generation) {
+        for (SummarySubscription subscription : subscriptions) {
+            if (generation % subscription.sampleEvery == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /*----- Methods -----*/
+
+    /**
+     * Subscribes to summaries of all generations.
+     *
+     * @param subscriber Subscriber of summaries.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super GenerationSummary> subscriber) {
+        subscribe(subscriber, 1);
+    }
+
+    /**
+     * Subscribes to summaries of every sampleEvery-th generation of each population.
+     *
+     * @param subscriber  Subscriber of summaries.
+     * @param sampleEvery Number of generations between two delivered summaries of population.
+     */
+    public void subscribe(Flow.Subscriber<? super GenerationSummary> subscriber, int sampleEvery) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber must not be null");
+        }
+        if (sampleEvery < 1) {
+            throw new IllegalArgumentException("Sampling rate must be at least one generation");
+        }
+
+        SummarySubscription subscription = new SummarySubscription(subscriber, sampleEvery);
+        subscriber.onSubscribe(subscription);
+
+        subscriptions.add(subscription);
+        if (closed) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * Offers summary to subscribers which sample its generation. Never blocks.
+     *
+     * @param summary Summary of generation.
+     */
+    public void publish(GenerationSummary summary) {
+        for (SummarySubscription subscription : subscriptions) {
+            if (summary.getGeneration() % subscription.sampleEvery == 0) {
+                subscription.offer(summary);
+            }
+        }
+    }
+
+    /**
+     * Completes all subscriptions after queued summaries are delivered, summaries published later are ignored.
+     */
+    public void close() {
+        closed = true;
+        for (SummarySubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * Subscription with bounded queue of summaries, drained by one task of executor at a time.
+     */
+    private class SummarySubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super GenerationSummary> subscriber;
+        private final int sampleEvery;
+        private final ArrayDeque<GenerationSummary> queue = new ArrayDeque<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private long demand = 0;
+        private boolean completed = false;
+        private boolean cancelled = false;
+        private Throwable error;
+
+        SummarySubscription(Flow.Subscriber<? super GenerationSummary> subscriber, int sampleEvery) {
+            this.subscriber = subscriber;
+            this.sampleEvery = sampleEvery;
+        }
+
+        void offer(GenerationSummary summary) {
+            synchronized (this) {
+                if (cancelled || completed) {
+                    return;
+                }
+                if (queue.size() == capacity) {
+                    queue.pollFirst();
+                }
+                queue.addLast(summary);
+            }
+            schedule();
+        }
+
+        void complete() {
+            synchronized (this) {
+                completed = true;
+            }
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (n <= 0) {
+                    error = new IllegalArgumentException("Requested number of summaries must be positive");
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                cancelled = true;
+                queue.clear();
+            }
+            subscriptions.remove(this);
+        }
+
+        private void schedule() {
+            if (pending.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    pending.set(0);
+                }
+            }
+        }
+
+        /**
+         * Delivers queued summaries while there is demand, then completion or error. Runs on one thread at a time.
+         */
+        @Override
+        public void run() {
+            int missed = 1;
+
+            do {
+                while (true) {
+                    GenerationSummary summary;
+                    Throwable failure = null;
+                    boolean done = false;
+
+                    synchronized (this) {
+                        if (cancelled) {
+                            return;
+                        }
+                        if (error != null) {
+                            failure = error;
+                            cancelled = true;
+                            summary = null;
+                        } else if (demand > 0 && !queue.isEmpty()) {
+                            summary = queue.pollFirst();
+                            --demand;
+                        } else {
+                            summary = null;
+                            done = completed && queue.isEmpty();
+                            if (done) {
+                                cancelled = true;
+                            }
+                        }
+                    }
+
+                    if (failure != null) {
+                        subscriptions.remove(this);
+                        subscriber.onError(failure);
+                        return;
+                    }
+                    if (done) {
+                        subscriptions.remove(this);
+                        subscriber.onComplete();
+                        return;
+                    }
+                    if (summary == null) {
+                        break;
+                    }
+
+                    try {
+                        subscriber.onNext(summary);
+                    } catch (Throwable e) {
+                        cancel();
+                        subscriber.onError(e);
+                        return;
+                    }
+                }
+
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+
+}
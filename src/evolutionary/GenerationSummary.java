@@ -0,0 +1,139 @@
+package evolutionary;
+
+/**
+ * Summary of one population after one generation, published by {@link GenerationPublisher}.
+ */
+public class GenerationSummary {
+    private final boolean isWedding;
+    private final int generation;
+    private final double best;
+    private final double worst;
+    private final double mean;
+    private final double diversity;
+    private final long evaluations;
+    private final long nanos;
+
+
+    /*----- Constructors -----*/
+
+    /**
+     * @param isWedding   True for population with wedding.
+     * @param generation  Number of finished generations.
+     * @param best        The best objective function value.
+     * @param worst       The worst objective function value.
+     * @param mean        Mean objective function value.
+     * @param diversity   Mean Euclidean distance of individuals from centroid of population.
+     * @param evaluations Number of objective function evaluations since the population was created.
+     * @param nanos       Duration of the generation in nanoseconds.
+     */
+    public GenerationSummary(boolean isWedding, int generation, double best, double worst, double mean, double diversity,
+                             long evaluations, long nanos) {
+        this.isWedding = isWedding;
+        this.generation = generation;
+        this.best = best;
+        this.worst = worst;
+        this.mean = mean;
+        this.diversity = diversity;
+        this.evaluations = evaluations;
+        this.nanos = nanos;
+    }
+
+
+    /*----- Getters & setters -----*/
+
+    public boolean isWedding() {
+        return isWedding;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    public double getBest() {
+        return best;
+    }
+
+    public double getWorst() {
+        return worst;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getDiversity() {
+        return diversity;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+
+    /*----- Methods -----*/
+
+    /**
+     * Counts summary of population in two passes over its rows.
+     *
+     * @param isWedding  True for population with wedding.
+     * @param generation Number of finished generations.
+     * @param population Population after the generation.
+     * @param nanos      Duration of the generation in nanoseconds.
+     * @return New summary.
+     */
+    public static GenerationSummary of(boolean isWedding, int generation, Population population, long nanos) {
+        PopulationStore store = population.getStore();
+        int size = store.getSize();
+        int dim = store.getDimension();
+        double[] x = store.getX();
+        double[] centroid = new double[dim];
+        double best = Double.POSITIVE_INFINITY;
+        double worst = Double.NEGATIVE_INFINITY;
+        double sum = 0;
+
+        for (int i = 0; i < size; ++i) {
+            double val = store.getObjFuncVal(i);
+            best = Math.min(best, val);
+            worst = Math.max(worst, val);
+            sum += val;
+
+            int offset = store.offset(i);
+            for (int j = 0; j < dim; ++j) {
+                centroid[j] += x[offset + j];
+            }
+        }
+
+        double diversity = 0;
+        if (size > 0) {
+            for (int j = 0; j < dim; ++j) {
+                centroid[j] /= size;
+            }
+
+            for (int i = 0; i < size; ++i) {
+                int offset = store.offset(i);
+                double squares = 0;
+                for (int j = 0; j < dim; ++j) {
+                    double d = x[offset + j] - centroid[j];
+                    squares += d * d;
+                }
+                diversity += Math.sqrt(squares);
+            }
+            diversity /= size;
+        }
+
+        return new GenerationSummary(isWedding, generation, best, worst, size > 0 ? sum / size : Double.NaN, diversity,
+                population.getEvaluations(), nanos);
+    }
+
+    @Override
+    public String toString() {
+        return (isWedding ? "With wedding" : "Without wedding") + ", generation " + generation + ": best = " + best
+                + ", worst = " + worst + ", mean = " + mean + ", diversity = " + diversity + ", evaluations = " + evaluations
+                + ", time = " + nanos / 1e6 + " ms";
+    }
+
+}
@@ -0,0 +1,83 @@
+package evolutionary;
+
+/**
+ * Genome of one individual of one arm of a run, dumped for detailed inspection.
+ */
+public class GenomeRecord {
+    private final long runId;
+    private final int arm;
+    private final int generation;
+    private final int rank;
+    private final double objFuncVal;
+    private final double[] x;
+    private final double[] sigma;
+
+
+    /*----- Constructors -----*/
+
+    /**
+     * @param runId      Identifier of run, unique in experiment.
+     * @param arm        One of {@link ExperimentSummary#INITIAL}, {@link ExperimentSummary#WITH_WEDDING} and
+     *                   {@link ExperimentSummary#WITHOUT_WEDDING}.
+     * @param generation Number of finished generations.
+     * @param rank       Position of individual in population sorted from the best, 0 is the best.
+     * @param objFuncVal Objective function value.
+     * @param x          Array of x, not copied.
+     * @param sigma      Array of sigma, not copied.
+     */
+    public GenomeRecord(long runId, int arm, int generation, int rank, double objFuncVal, double[] x, double[] sigma) {
+        if (x.length != sigma.length) {
+            throw new IllegalArgumentException("Arrays of x and sigma must have the same length");
+        }
+
+        this.runId = runId;
+        this.arm = arm;
+        this.generation = generation;
+        this.rank = rank;
+        this.objFuncVal = objFuncVal;
+        this.x = x;
+        this.sigma = sigma;
+    }
+
+
+    /*----- Getters & setters -----*/
+
+    public long getRunId() {
+        return runId;
+    }
+
+    public int getArm() {
+        return arm;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public double getObjFuncVal() {
+        return objFuncVal;
+    }
+
+    /**
+     * @return Array of x, not a copy.
+     */
+    public double[] getX() {
+        return x;
+    }
+
+    /**
+     * @return Array of sigma, not a copy.
+     */
+    public double[] getSigma() {
+        return sigma;
+    }
+
+    public int getDimension() {
+        return x.length;
+    }
+
+}
@@ -0,0 +1,50 @@
+package evolutionary;
+
+import static java.lang.Math.cos;
+import static java.lang.Math.sqrt;
+
+/**
+ * Griewank's Function (CEC 2014 F7, without rotations and shifting).
+ */
+public final class GriewankFunction implements ObjectiveFunction {
+    // Published to evaluating threads, counted again by whichever thread sees other dimension first
+    private volatile double[] sqrtIndex = new double[0];
+
+    @Override
+    public double evaluate(double[] x, int offset, int dim) {
+        double sum = 0;
+        double mul = 1;
+
+        for (int i = 0; i < dim; ++i) {
+            double x_i = x[offset + i];
+            sum += x_i * x_i;
+            mul *= cos(x_i / sqrt(i + 1));
+        }
+
+        return sum - mul + 1;
+    }
+
+    @Override
+    public void evaluateBatch(double[] x, int dim, int[] rows, int from, int to, double[] values) {
+        EvaluationKernels.get().griewank(x, dim, rows, from, to, sqrtIndex(dim), values);
+    }
+
+    /**
+     * @param dim Dimension of individual.
+     * @return sqrt(i + 1) for each gene, counted once per dimension.
+     */
+    double[] sqrtIndex(int dim) {
+        double[] s = sqrtIndex;
+
+        if (s.length != dim) {
+            s = new double[dim];
+            for (int i = 0; i < dim; ++i) {
+                s[i] = sqrt(i + 1);
+            }
+            sqrtIndex = s;
+        }
+
+        return s;
+    }
+
+}
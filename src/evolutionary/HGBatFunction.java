@@ -0,0 +1,30 @@
+package evolutionary;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.sqrt;
+
+/**
+ * HGBat Function (CEC 2014 F12, without rotations and shifting).
+ */
+public final class HGBatFunction implements ObjectiveFunction {
+
+    @Override
+    public double evaluate(double[] x, int offset, int dim) {
+        double sum1 = 0;
+        double sum2 = 0;
+
+        for (int i = offset; i < offset + dim; ++i) {
+            double x_i = x[i];
+            sum1 += x_i;
+            sum2 += x_i * x_i;
+        }
+
+        return sqrt(abs(sum2 * sum2 - sum1 * sum1)) + ((0.5 * sum2 + sum1) / dim + 0.5);
+    }
+
+    @Override
+    public void evaluateBatch(double[] x, int dim, int[] rows, int from, int to, double[] values) {
+        EvaluationKernels.get().hgbat(x, dim, rows, from, to, values);
+    }
+
+}
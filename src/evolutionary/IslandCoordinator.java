@@ -0,0 +1,396 @@
+package evolutionary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * Coordinator of islands running in separate processes, see {@link IslandNode}.
+ * Islands connect to it over TCP and send it their emigrants, coordinator forwards them to islands chosen by
+ * migration topology among islands still connected, so islands do not need to know about each other.
+ * It keeps the best individual reported by any island. An island whose connection breaks before it finished, or
+ * which never connected (see {@link #dropUnconnected()}), is dropped, the remaining islands go on migrating among
+ * themselves.
+ * Every connection has its own writer thread, so a slow island never holds up delivery to the others.
+ */
+public class IslandCoordinator implements Closeable {
+    private final ServerSocket server;
+    private final int islands;
+    private final MigrationTopology topology;
+    private final RandomGenerator rand;
+    private final ConcurrentSkipListMap<Integer, Connection> connections = new ConcurrentSkipListMap<>();
+    private final Set<Integer> finished = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> dropped = ConcurrentHashMap.newKeySet();
+    private final CountDownLatch completion;
+    // Guards moves of islands between connected, finished and dropped, so each island is counted down once
+    private final Object membership = new Object();
+    private final Object bestLock = new Object();
+    private Individual best;
+    private int bestIsland = -1;
+    private int dim = -1;
+    private volatile boolean closed = false;
+
+
+    /*----- Constructors -----*/
+
+    /**
+     * Listens on loopback address.
+     *
+     * @param port     Port to listen on, 0 to pick a free one.
+     * @param islands  Number of islands taking part.
+     * @param topology Which islands receive emigrants of an island.
+     * @param seed     Master seed of random topology.
+     * @throws IOException When port cannot be bound.
+     */
+    public IslandCoordinator(int port, int islands, MigrationTopology topology, long seed) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), islands, topology, seed);
+    }
+
+    /**
+     * @param address  Address to listen on, e.g. wildcard address for islands on other hosts.
+     * @param islands  Number of islands taking part.
+     * @param topology Which islands receive emigrants of an island.
+     * @param seed     Master seed of random topology.
+     * @throws IOException When address cannot be bound.
+     */
+    public IslandCoordinator(InetSocketAddress address, int islands, MigrationTopology topology, long seed)
+            throws IOException {
+        if (islands < 1) {
+            throw new IllegalArgumentException("There must be at least one island");
+        }
+
+        this.islands = islands;
+        this.topology = topology;
+        this.rand = new RandomStreams(seed).stream(RandomStreams.MIGRATION);
+        this.completion = new CountDownLatch(islands);
+        this.server = new ServerSocket();
+        this.server.bind(address);
+
+        Thread acceptor = new Thread(this::acceptIslands, "island-coordinator");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+
+    /*----- Getters & setters -----*/
+
+    /**
+     * @return Port the coordinator listens on.
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * @return The best individual reported by any island, null when none reported yet.
+     */
+    public Individual getBestIndividual() {
+        synchronized (bestLock) {
+            return best;
+        }
+    }
+
+    /**
+     * @return The best objective function value reported by any island.
+     */
+    public double getBestObjFuncVal() {
+        synchronized (bestLock) {
+            return best == null ? 10E9 : best.getRawObjFuncVal();
+        }
+    }
+
+    /**
+     * @return Number of island which reported the best individual, -1 when none reported yet.
+     */
+    public int getBestIsland() {
+        synchronized (bestLock) {
+            return bestIsland;
+        }
+    }
+
+    /**
+     * @return Numbers of islands which finished evolution.
+     */
+    public Set<Integer> getFinishedIslands() {
+        return new TreeSet<>(finished);
+    }
+
+    /**
+     * @return Numbers of islands whose connection broke before they finished, or which never connected.
+     */
+    public Set<Integer> getDroppedIslands() {
+        return new TreeSet<>(dropped);
+    }
+
+    /**
+     * @return Numbers of islands currently connected.
+     */
+    public Set<Integer> getConnectedIslands() {
+        return new TreeSet<>(connections.keySet());
+    }
+
+
+    /*----- Methods -----*/
+
+    /**
+     * Waits until every island finished or dropped out.
+     *
+     * @param timeout Maximum time to wait.
+     * @param unit    Unit of timeout.
+     * @return True when all islands are accounted for, false when time ran out.
+     * @throws InterruptedException When interrupted while waiting.
+     */
+    public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        return completion.await(timeout, unit);
+    }
+
+    /**
+     * Drops islands which never connected, e.g. whose process ended before greeting, so that every island is
+     * finished or dropped. Such islands are refused if they connect later.
+     *
+     * @return Numbers of islands dropped by this call.
+     */
+    public Set<Integer> dropUnconnected() {
+        Set<Integer> missing = new TreeSet<>();
+
+        synchronized (membership) {
+            for (int island = 0; island < islands; ++island) {
+                if (!connections.containsKey(island) && !finished.contains(island) && dropped.add(island)) {
+                    missing.add(island);
+                    completion.countDown();
+                }
+            }
+        }
+
+        if (!missing.isEmpty() && !closed) {
+            System.err.println("Islands never connected: " + missing);
+        }
+        return missing;
+    }
+
+    /**
+     * Stops listening and closes connections of all islands.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        server.close();
+        for (Connection connection : connections.values()) {
+            connection.close();
+        }
+    }
+
+    private void acceptIslands() {
+        while (!closed) {
+            try {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+
+                Thread reader = new Thread(() -> serve(socket), "island-coordinator-reader");
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("Island coordinator stopped accepting: " + e.getMessage());
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads messages of one island until it finishes or its connection breaks.
+     */
+    private void serve(Socket socket) {
+        Connection connection = null;
+
+        try (socket) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+            MigrantCodec.Message hello = MigrantCodec.read(in);
+            int island = hello.getIsland();
+            if (hello.getType() != MigrantCodec.HELLO || island < 0 || island >= islands) {
+                throw new IOException("Unexpected greeting of island " + island);
+            }
+            synchronized (bestLock) {
+                if (dim == -1) {
+                    dim = hello.getDimension();
+                } else if (dim != hello.getDimension()) {
+                    throw new IOException("Island " + island + " has dimension " + hello.getDimension()
+                            + " instead of " + dim);
+                }
+            }
+
+            Connection joining = new Connection(island, socket);
+            synchronized (membership) {
+                if (finished.contains(island) || dropped.contains(island)
+                        || connections.putIfAbsent(island, joining) != null) {
+                    joining.close();
+                    throw new IOException("Island " + island + " is already known");
+                }
+            }
+            connection = joining;
+
+            while (true) {
+                MigrantCodec.Message message = MigrantCodec.read(in);
+
+                switch (message.getType()) {
+                    case MigrantCodec.MIGRANTS:
+                        forward(island, message.getFrame());
+                        break;
+
+                    case MigrantCodec.BEST:
+                        offerBest(message);
+                        break;
+
+                    case MigrantCodec.DONE:
+                        offerBest(message);
+                        synchronized (membership) {
+                            if (connections.remove(island, connection)) {
+                                finished.add(island);
+                                completion.countDown();
+                            }
+                        }
+                        connection.close();
+                        return;
+
+                    default:
+                        break;
+                }
+            }
+        } catch (IOException e) {
+            if (connection != null) {
+                drop(connection, e);
+            } else if (!closed) {
+                System.err.println("Island refused: " + e.getMessage());
+            }
+        }
+    }
+
+    private void offerBest(MigrantCodec.Message message) {
+        if (message.getIndividuals().length == 0) {
+            return;
+        }
+
+        // Compared by raw values, objective function values of married individuals are averaged
+        Individual candidate = message.getIndividuals()[0];
+        synchronized (bestLock) {
+            if (best == null || candidate.getRawObjFuncVal() < best.getRawObjFuncVal()) {
+                best = candidate;
+                bestIsland = message.getIsland();
+            }
+        }
+    }
+
+    /**
+     * Hands frame to writers of islands chosen by topology among connected islands.
+     */
+    private void forward(int island, byte[] frame) {
+        Integer[] live = connections.keySet().toArray(new Integer[0]);
+        int index = -1;
+        for (int i = 0; i < live.length; ++i) {
+            if (live[i] == island) {
+                index = i;
+            }
+        }
+        if (index == -1) {
+            return;
+        }
+
+        int[] targets = new int[live.length];
+        int count;
+        synchronized (rand) {
+            count = topology.targets(index, live.length, rand, targets);
+        }
+
+        for (int t = 0; t < count; ++t) {
+            Connection target = connections.get(live[targets[t]]);
+            if (target != null) {
+                target.send(frame);
+            }
+        }
+    }
+
+    private void drop(Connection connection, IOException cause) {
+        connection.close();
+        synchronized (membership) {
+            if (!connections.remove(connection.island, connection) || finished.contains(connection.island)
+                    || !dropped.add(connection.island)) {
+                return;
+            }
+            completion.countDown();
+        }
+        if (!closed) {
+            System.err.println("Island " + connection.island + " dropped out: " + cause.getMessage());
+        }
+    }
+
+    /**
+     * Connection of one island with queue of frames written by its own thread.
+     */
+    private class Connection {
+        private final int island;
+        private final Socket socket;
+        private final LinkedBlockingQueue<byte[]> outbox = new LinkedBlockingQueue<>();
+
+        Connection(int island, Socket socket) {
+            this.island = island;
+            this.socket = socket;
+
+            Thread writer = new Thread(this::write, "island-coordinator-writer-" + island);
+            writer.setDaemon(true);
+            writer.start();
+        }
+
+        void send(byte[] frame) {
+            outbox.offer(frame);
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Nothing more to do with broken connection
+            }
+        }
+
+        private void write() {
+            try {
+                OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+                while (!socket.isClosed()) {
+                    byte[] frame = outbox.poll(1, TimeUnit.SECONDS);
+                    if (frame == null) {
+                        continue;
+                    }
+
+                    out.write(frame);
+                    // Write everything already waiting before flushing
+                    while ((frame = outbox.poll()) != null) {
+                        out.write(frame);
+                    }
+                    out.flush();
+                }
+            } catch (IOException e) {
+                drop(this, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+}
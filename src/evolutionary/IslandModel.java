@@ -0,0 +1,224 @@
+package evolutionary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.random.RandomGenerator;
+
+/**
+ * Island model of evolution: several populations evolve on separate threads and every few generations send copies of
+ * their best individuals to other islands along migration topology.
+ * Emigrants are handed off through lock-free queues, an island takes whatever arrived after each generation and never
+ * waits for other islands, so migration is asynchronous and islands may drift apart by a few generations.
+ * Immigrants replace the worst individuals of receiving island.
+ */
+public class IslandModel {
+    private final Population[] islands;
+    private final List<ConcurrentLinkedQueue<Individual[]>> inboxes;
+    private final RandomStreams[] streams;
+    private final int[] generations;
+    private final int childrenCount;
+    private final double mutationProbability;
+    private final boolean isWedding;
+    private int migrationInterval = 10;
+    private int migrants = 2;
+    private MigrationTopology topology = MigrationTopology.RING;
+
+
+    /*----- Constructors -----*/
+
+    /**
+     * Creates islands with own initial populations, all drawn from random streams of evolution.
+     *
+     * @param evolution           Evolution defining objective function, its optima and master seed.
+     * @param islands             Number of islands, each evolves on its own thread.
+     * @param islandSize          Size of population of each island, mi.
+     * @param childrenCount       Size of children population of each island, lambda.
+     * @param mutationProbability Probability of performing mutations.
+     * @param isWedding           Whether islands use wedding modification.
+     */
+    public IslandModel(Evolution evolution, int islands, int islandSize, int childrenCount, double mutationProbability, boolean isWedding) {
+        if (islands < 1) {
+            throw new IllegalArgumentException("There must be at least one island");
+        }
+
+        this.islands = new Population[islands];
+        this.inboxes = new ArrayList<>(islands);
+        this.streams = new RandomStreams[islands];
+        this.generations = new int[islands];
+        this.childrenCount = childrenCount;
+        this.mutationProbability = mutationProbability;
+        this.isWedding = isWedding;
+
+        long key = isWedding ? RandomStreams.POPULATION_WITH_WEDDING : RandomStreams.POPULATION_WITHOUT_WEDDING;
+        for (int i = 0; i < islands; ++i) {
+            streams[i] = evolution.getRandomStreams().split(RandomStreams.ISLAND, i);
+            this.islands[i] = new Population(evolution, islandSize, evolution.getDimension(), -100, 100, 10,
+                    evolution.getObjectiveFunction(), streams[i]);
+            this.islands[i].setRandomStreams(streams[i], key);
+            inboxes.add(new ConcurrentLinkedQueue<>());
+        }
+    }
+
+
+    /*----- Getters & setters -----*/
+
+    /**
+     * @return Number of generations between two migrations.
+     */
+    public int getMigrationInterval() {
+        return migrationInterval;
+    }
+
+    /**
+     * @param migrationInterval Number of generations between two migrations, M.
+     */
+    public void setMigrationInterval(int migrationInterval) {
+        if (migrationInterval < 1) {
+            throw new IllegalArgumentException("Migration interval must be at least one generation");
+        }
+        this.migrationInterval = migrationInterval;
+    }
+
+    /**
+     * @return Number of the best individuals an island sends to each receiving island.
+     */
+    public int getMigrants() {
+        return migrants;
+    }
+
+    /**
+     * @param migrants Number of the best individuals an island sends to each receiving island.
+     */
+    public void setMigrants(int migrants) {
+        this.migrants = migrants;
+    }
+
+    /**
+     * @return Topology of migration.
+     */
+    public MigrationTopology getTopology() {
+        return topology;
+    }
+
+    /**
+     * @param topology Which islands receive emigrants of an island, ring by default.
+     */
+    public void setTopology(MigrationTopology topology) {
+        this.topology = topology;
+    }
+
+    /**
+     * @return Populations of islands, valid between runs.
+     */
+    public Population[] getIslands() {
+        return islands.clone();
+    }
+
+    /**
+     * @param island Number of island.
+     * @return Number of finished generations of island.
+     */
+    public int getGeneration(int island) {
+        return generations[island];
+    }
+
+    /**
+     * @return The best objective function value of all islands.
+     */
+    public double getBestIndividual() {
+        double best = 10E9;
+        for (Population island : islands) {
+            best = Math.min(best, island.getBestIndividual());
+        }
+        return best;
+    }
+
+    /**
+     * @return The worst objective function value of all islands.
+     */
+    public double getWorstIndividual() {
+        double worst = -10E9;
+        for (Population island : islands) {
+            worst = Math.max(worst, island.getWorstIndividual());
+        }
+        return worst;
+    }
+
+
+    /*----- Methods -----*/
+
+    /**
+     * Evolves every island for given number of generations, each island on its own thread, and waits for all of them.
+     * Another call continues from where the previous one ended.
+     *
+     * @param generationCount Number of generations of each island.
+     */
+    public void performEvolution(int generationCount) {
+        ArrayList<FutureTask<Void>> tasks = new ArrayList<>();
+
+        for (int i = 0; i < islands.length; ++i) {
+            int island = i;
+            FutureTask<Void> task = new FutureTask<>(() -> {
+                evolveIsland(island, generationCount);
+                return null;
+            });
+            tasks.add(task);
+            new Thread(task, "evolution-island-" + i).start();
+        }
+
+        for (FutureTask<Void> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for islands", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        // Emigrants sent after the last generation of receiving island wait for the next call
+        for (int i = 0; i < islands.length; ++i) {
+            acceptImmigrants(i);
+        }
+    }
+
+    private void evolveIsland(int island, int generationCount) {
+        RandomGenerator rand = streams[island].stream(RandomStreams.MIGRATION, generations[island]);
+        int[] targets = new int[islands.length];
+
+        for (int g = 0; g < generationCount; ++g) {
+            Population population = islands[island].performEvolution(childrenCount, isWedding, mutationProbability);
+            islands[island] = population;
+            int generation = ++generations[island];
+
+            if (generation % migrationInterval == 0 && migrants > 0) {
+                // Emigrants are detached copies, so receiving islands share nothing mutable with this one
+                Individual[] emigrants = population.getBestIndividuals(migrants);
+                int count = topology.targets(island, islands.length, rand, targets);
+                for (int t = 0; t < count; ++t) {
+                    inboxes.get(targets[t]).offer(emigrants);
+                }
+            }
+
+            acceptImmigrants(island);
+        }
+    }
+
+    private void acceptImmigrants(int island) {
+        Individual[] immigrants;
+        while ((immigrants = inboxes.get(island).poll()) != null) {
+            islands[island].replaceWorst(immigrants, immigrants.length);
+        }
+    }
+
+}
@@ -0,0 +1,261 @@
+package evolutionary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One island of {@link IslandModel} running in its own process and migrating through {@link IslandCoordinator}.
+ * Sending and receiving run on their own threads and hand messages over through queues, so evolution never waits
+ * for network. When connection to coordinator breaks, island goes on evolving alone.
+ * Islands started with the same seed share objective function and optima, island i draws its population from the
+ * same streams as island i of {@link IslandModel}.
+ */
+public class IslandNode {
+    private final Evolution evolution;
+    private final int island;
+    private final int childrenCount;
+    private final double mutationProbability;
+    private final boolean isWedding;
+    private final ConcurrentLinkedQueue<Individual[]> inbox = new ConcurrentLinkedQueue<>();
+    private final LinkedBlockingQueue<byte[]> outbox = new LinkedBlockingQueue<>();
+    private Population population;
+    private int generation = 0;
+    private int migrationInterval = 10;
+    private int migrants = 2;
+    private Socket socket;
+    private volatile boolean connected = false;
+    private volatile boolean finishing = false;
+
+
+    /*----- Constructors -----*/
+
+    /**
+     * @param evolution           Evolution defining objective function, its optima and master seed.
+     * @param island              Number of island, unique among islands of coordinator.
+     * @param islandSize          Size of population of island, mi.
+     * @param childrenCount       Size of children population of island, lambda.
+     * @param mutationProbability Probability of performing mutations.
+     * @param isWedding           Whether island uses wedding modification.
+     */
+    public IslandNode(Evolution evolution, int island, int islandSize, int childrenCount, double mutationProbability,
+                      boolean isWedding) {
+        this.evolution = evolution;
+        this.island = island;
+        this.childrenCount = childrenCount;
+        this.mutationProbability = mutationProbability;
+        this.isWedding = isWedding;
+
+        RandomStreams streams = evolution.getRandomStreams().split(RandomStreams.ISLAND, island);
+        population = new Population(evolution, islandSize, evolution.getDimension(), -100, 100, 10,
+                evolution.getObjectiveFunction(), streams);
+        population.setRandomStreams(streams,
+                isWedding ? RandomStreams.POPULATION_WITH_WEDDING : RandomStreams.POPULATION_WITHOUT_WEDDING);
+    }
+
+
+    /*----- Getters & setters -----*/
+
+    /**
+     * @param migrationInterval Number of generations between two migrations, M.
+     */
+    public void setMigrationInterval(int migrationInterval) {
+        if (migrationInterval < 1) {
+            throw new IllegalArgumentException("Migration interval must be at least one generation");
+        }
+        this.migrationInterval = migrationInterval;
+    }
+
+    /**
+     * @param migrants Number of the best individuals sent every migration.
+     */
+    public void setMigrants(int migrants) {
+        this.migrants = migrants;
+    }
+
+    /**
+     * @return Population of island.
+     */
+    public Population getPopulation() {
+        return population;
+    }
+
+    /**
+     * @return Number of finished generations.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @return True while connection to coordinator works.
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+
+    /*----- Methods -----*/
+
+    /**
+     * Connects to coordinator and starts threads sending and receiving migrants.
+     *
+     * @param host Host of coordinator.
+     * @param port Port of coordinator.
+     * @throws IOException When coordinator cannot be reached.
+     */
+    public void connect(String host, int port) throws IOException {
+        socket = new Socket(host, port);
+        socket.setTcpNoDelay(true);
+        connected = true;
+
+        send(MigrantCodec.HELLO, new Individual[0]);
+
+        Thread writer = new Thread(this::write, "island-" + island + "-writer");
+        writer.setDaemon(true);
+        writer.start();
+
+        Thread reader = new Thread(this::read, "island-" + island + "-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Evolves island for given number of generations, sending its best individuals every migration interval and
+     * taking immigrants which arrived after each generation. With migrants goes the individual of the lowest raw
+     * objective function value, the one coordinator compares.
+     *
+     * @param generationCount Number of generations.
+     */
+    public void performEvolution(int generationCount) {
+        for (int g = 0; g < generationCount; ++g) {
+            population = population.performEvolution(childrenCount, isWedding, mutationProbability);
+            ++generation;
+
+            if (generation % migrationInterval == 0 && migrants > 0 && connected) {
+                send(MigrantCodec.MIGRANTS, population.getBestIndividuals(migrants));
+                send(MigrantCodec.BEST, new Individual[]{population.getBestRawIndividual()});
+            }
+
+            Individual[] immigrants;
+            while ((immigrants = inbox.poll()) != null) {
+                population.replaceWorst(immigrants, immigrants.length);
+            }
+        }
+    }
+
+    /**
+     * Reports the individual of the lowest raw objective function value to coordinator and closes connection once
+     * everything queued is sent.
+     *
+     * @throws IOException          When connection cannot be closed.
+     * @throws InterruptedException When interrupted while waiting for the report to be sent.
+     */
+    public void finish() throws IOException, InterruptedException {
+        if (connected) {
+            finishing = true;
+            send(MigrantCodec.DONE, new Individual[]{population.getBestRawIndividual()});
+
+            // Coordinator closes connection after it read final report
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (connected && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+        }
+        if (socket != null) {
+            socket.close();
+        }
+    }
+
+    private void send(byte type, Individual[] individuals) {
+        outbox.offer(MigrantCodec.encode(type, island, generation, evolution.getDimension(), individuals));
+    }
+
+    private void write() {
+        try {
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            while (connected) {
+                byte[] frame = outbox.poll(1, TimeUnit.SECONDS);
+                if (frame == null) {
+                    continue;
+                }
+
+                out.write(frame);
+                out.flush();
+                if (frame[4] == MigrantCodec.DONE) {
+                    socket.shutdownOutput();
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            disconnect(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void read() {
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            while (connected) {
+                MigrantCodec.Message message = MigrantCodec.read(in);
+                if (message.getType() == MigrantCodec.MIGRANTS
+                        && message.getDimension() == evolution.getDimension()) {
+                    inbox.offer(message.getIndividuals());
+                }
+            }
+        } catch (IOException e) {
+            if (finishing) {
+                connected = false;
+            } else {
+                disconnect(e);
+            }
+        }
+    }
+
+    private void disconnect(IOException cause) {
+        if (connected) {
+            connected = false;
+            outbox.clear();
+            System.err.println("Island " + island + " lost coordinator, evolving alone: " + cause.getMessage());
+        }
+    }
+
+    /**
+     * Runs one island process, see {@link LocalIslandCluster}.
+     * Arguments: host, port, island, generations, seed, funcNum, dim, islandSize, childrenCount, mutationProbability,
+     * isWedding, migrationInterval and migrants.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 13) {
+            System.err.println("Usage: IslandNode host port island generations seed funcNum dim islandSize"
+                    + " childrenCount mutationProbability isWedding migrationInterval migrants");
+            System.exit(2);
+        }
+
+        int island = Integer.parseInt(args[2]);
+        int generations = Integer.parseInt(args[3]);
+        int dim = Integer.parseInt(args[6]);
+        int islandSize = Integer.parseInt(args[7]);
+        int childrenCount = Integer.parseInt(args[8]);
+        double mutationProbability = Double.parseDouble(args[9]);
+
+        Evolution evolution = new Evolution(islandSize, childrenCount, dim, Integer.parseInt(args[5]), 0,
+                mutationProbability, Long.parseLong(args[4]));
+        IslandNode node = new IslandNode(evolution, island, islandSize, childrenCount, mutationProbability,
+                Boolean.parseBoolean(args[10]));
+        node.setMigrationInterval(Integer.parseInt(args[11]));
+        node.setMigrants(Integer.parseInt(args[12]));
+
+        node.connect(args[0], Integer.parseInt(args[1]));
+        node.performEvolution(generations);
+        node.finish();
+    }
+
+}
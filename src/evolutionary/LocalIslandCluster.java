@@ -0,0 +1,178 @@
+package evolutionary;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs islands as separate JVM processes on this host, connected to coordinator on loopback address.
+ * Island processes use the same Java and class path as this one.
+ */
+public class LocalIslandCluster {
+    private final int islands;
+    private final int funcNum;
+    private final int dim;
+    private final int islandSize;
+    private final int childrenCount;
+    private final double mutationProbability;
+    private final boolean isWedding;
+    private final long seed;
+    private MigrationTopology topology = MigrationTopology.RING;
+    private int migrationInterval = 10;
+    private int migrants = 2;
+    private long timeoutSeconds = 3600;
+
+
+    /*----- Constructors -----*/
+
+    /**
+     * @param islands             Number of island processes.
+     * @param funcNum             Number of objective function.
+     * @param dim                 Dimension of x and sigma array.
+     * @param islandSize          Size of population of each island, mi.
+     * @param childrenCount       Size of children population of each island, lambda.
+     * @param mutationProbability Probability of performing mutations.
+     * @param isWedding           Whether islands use wedding modification.
+     * @param seed                Master seed shared by all islands.
+     */
+    public LocalIslandCluster(int islands, int funcNum, int dim, int islandSize, int childrenCount,
+                              double mutationProbability, boolean isWedding, long seed) {
+        this.islands = islands;
+        this.funcNum = funcNum;
+        this.dim = dim;
+        this.islandSize = islandSize;
+        this.childrenCount = childrenCount;
+        this.mutationProbability = mutationProbability;
+        this.isWedding = isWedding;
+        this.seed = seed;
+    }
+
+
+    /*----- Getters & setters -----*/
+
+    /**
+     * @param topology Which islands receive emigrants of an island, ring by default.
+     */
+    public void setTopology(MigrationTopology topology) {
+        this.topology = topology;
+    }
+
+    /**
+     * @param migrationInterval Number of generations between two migrations, M.
+     */
+    public void setMigrationInterval(int migrationInterval) {
+        this.migrationInterval = migrationInterval;
+    }
+
+    /**
+     * @param migrants Number of the best individuals an island sends every migration.
+     */
+    public void setMigrants(int migrants) {
+        this.migrants = migrants;
+    }
+
+    /**
+     * @param timeoutSeconds Time after which island processes still running are killed.
+     */
+    public void setTimeoutSeconds(long timeoutSeconds) {
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+
+    /*----- Methods -----*/
+
+    /**
+     * Starts coordinator and island processes and waits until all of them end.
+     * Every island is then either finished or dropped, islands whose process ended before it connected are dropped.
+     *
+     * @param generationCount Number of generations of each island.
+     * @return Closed coordinator holding the best individual, finished and dropped islands.
+     * @throws IOException          When coordinator or processes cannot be started.
+     * @throws InterruptedException When interrupted while waiting for islands.
+     */
+    public IslandCoordinator run(int generationCount) throws IOException, InterruptedException {
+        IslandCoordinator coordinator = new IslandCoordinator(0, islands, topology, seed);
+        List<Process> processes = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < islands; ++i) {
+                ProcessBuilder builder = new ProcessBuilder(command(coordinator.getPort(), i, generationCount));
+                // Islands report through coordinator, only their errors are shown
+                builder.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+                builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+                processes.add(builder.start());
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+            for (Process process : processes) {
+                long left = deadline - System.nanoTime();
+                if (!process.waitFor(Math.max(left, 0), TimeUnit.NANOSECONDS)) {
+                    process.destroyForcibly();
+                }
+            }
+
+            // Connections of ended processes are closed, islands still missing never connected
+            if (!coordinator.awaitCompletion(5, TimeUnit.SECONDS)) {
+                coordinator.dropUnconnected();
+            }
+        } finally {
+            for (Process process : processes) {
+                process.destroyForcibly();
+            }
+            coordinator.close();
+        }
+
+        // Closing coordinator drops islands whose connection was still open
+        if (!coordinator.awaitCompletion(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Islands neither finished nor dropped: " + coordinator.getConnectedIslands());
+        }
+        return coordinator;
+    }
+
+    private List<String> command(int port, int island, int generationCount) {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command()
+                .orElse(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java"));
+        command.add("--add-modules");
+        command.add("jdk.incubator.vector");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(IslandNode.class.getName());
+
+        command.add(InetAddress.getLoopbackAddress().getHostAddress());
+        command.add(Integer.toString(port));
+        command.add(Integer.toString(island));
+        command.add(Integer.toString(generationCount));
+        command.add(Long.toString(seed));
+        command.add(Integer.toString(funcNum));
+        command.add(Integer.toString(dim));
+        command.add(Integer.toString(islandSize));
+        command.add(Integer.toString(childrenCount));
+        command.add(Double.toString(mutationProbability));
+        command.add(Boolean.toString(isWedding));
+        command.add(Integer.toString(migrationInterval));
+        command.add(Integer.toString(migrants));
+        return command;
+    }
+
+    /**
+     * Runs four islands of Rastrigin function on loopback and prints the best individual found.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int islands = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int generations = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        LocalIslandCluster cluster = new LocalIslandCluster(islands, 8, 10, 250, 375, 0.5, true,
+                RandomStreams.randomSeed());
+        IslandCoordinator coordinator = cluster.run(generations);
+
+        System.out.println("Finished islands: " + coordinator.getFinishedIslands());
+        System.out.println("Dropped islands: " + coordinator.getDroppedIslands());
+        System.out.println("The best objective function value: " + coordinator.getBestObjFuncVal()
+                + " found by island " + coordinator.getBestIsland());
+    }
+
+}
@@ -0,0 +1,165 @@
+package evolutionary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary encoding of messages exchanged by {@link IslandNode}s and {@link IslandCoordinator}.
+ * A frame is its length followed by type, number of island, generation, dimension, number of individuals and
+ * individuals, each as raw objective function value, x and sigma. All numbers are big-endian, doubles are written
+ * as their IEEE 754 bits, so genomes arrive bit for bit.
+ */
+public final class MigrantCodec {
+    // Island joins, carries no individuals
+    public static final byte HELLO = 1;
+    // The best individuals of island, delivered to islands chosen by topology
+    public static final byte MIGRANTS = 2;
+    // Individual of the lowest raw objective function value of island, for coordinator only
+    public static final byte BEST = 3;
+    // Island finished evolution, carries individual of its lowest raw objective function value
+    public static final byte DONE = 4;
+
+    private static final int HEADER = 1 + 4 * 4;
+    private static final int MAX_FRAME = 64 << 20;
+
+    private MigrantCodec() {
+    }
+
+
+    /*----- Methods -----*/
+
+    /**
+     * @param type        Type of message.
+     * @param island      Number of sending island.
+     * @param generation  Number of finished generations of sending island.
+     * @param dim         Dimension of individuals.
+     * @param individuals Individuals carried by message.
+     * @return Frame with its length, ready to be written to a stream.
+     */
+    public static byte[] encode(byte type, int island, int generation, int dim, Individual[] individuals) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4 + HEADER + individuals.length * (1 + 2 * dim) * 8);
+
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(HEADER + individuals.length * (1 + 2 * dim) * 8);
+            out.writeByte(type);
+            out.writeInt(island);
+            out.writeInt(generation);
+            out.writeInt(dim);
+            out.writeInt(individuals.length);
+
+            for (Individual individual : individuals) {
+                if (individual.getDimension() != dim) {
+                    throw new IllegalArgumentException("Individual of dimension " + individual.getDimension()
+                            + " in message of dimension " + dim);
+                }
+
+                out.writeDouble(individual.getRawObjFuncVal());
+                for (double x : individual.getX()) {
+                    out.writeDouble(x);
+                }
+                for (double sigma : individual.getSigma()) {
+                    out.writeDouble(sigma);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads one frame, blocking until it arrives whole.
+     *
+     * @param in Stream of frames.
+     * @return Decoded message.
+     * @throws IOException When stream ends or frame is malformed.
+     */
+    public static Message read(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < HEADER || length > MAX_FRAME) {
+            throw new IOException("Malformed frame of length " + length);
+        }
+
+        byte[] frame = new byte[4 + length];
+        ByteBuffer.wrap(frame).putInt(length);
+        in.readFully(frame, 4, length);
+
+        ByteBuffer buffer = ByteBuffer.wrap(frame, 4, length);
+        byte type = buffer.get();
+        int island = buffer.getInt();
+        int generation = buffer.getInt();
+        int dim = buffer.getInt();
+        int count = buffer.getInt();
+        if (dim < 0 || count < 0 || (long) count * (1 + 2L * dim) * 8 != length - HEADER) {
+            throw new IOException("Malformed frame of " + count + " individuals of dimension " + dim);
+        }
+
+        Individual[] individuals = new Individual[count];
+        for (int i = 0; i < count; ++i) {
+            double rawObjFuncVal = buffer.getDouble();
+            double[] x = new double[dim];
+            double[] sigma = new double[dim];
+            buffer.asDoubleBuffer().get(x);
+            buffer.position(buffer.position() + dim * 8);
+            buffer.asDoubleBuffer().get(sigma);
+            buffer.position(buffer.position() + dim * 8);
+            individuals[i] = new Individual(x, sigma, rawObjFuncVal);
+        }
+
+        return new Message(type, island, generation, dim, individuals, frame);
+    }
+
+    /**
+     * Decoded frame, keeps its bytes so that it can be forwarded without encoding it again.
+     */
+    public static final class Message {
+        private final byte type;
+        private final int island;
+        private final int generation;
+        private final int dim;
+        private final Individual[] individuals;
+        private final byte[] frame;
+
+        Message(byte type, int island, int generation, int dim, Individual[] individuals, byte[] frame) {
+            this.type = type;
+            this.island = island;
+            this.generation = generation;
+            this.dim = dim;
+            this.individuals = individuals;
+            this.frame = frame;
+        }
+
+        public byte getType() {
+            return type;
+        }
+
+        public int getIsland() {
+            return island;
+        }
+
+        public int getGeneration() {
+            return generation;
+        }
+
+        public int getDimension() {
+            return dim;
+        }
+
+        public Individual[] getIndividuals() {
+            return individuals;
+        }
+
+        /**
+         * @return Frame as it was read, including its length.
+         */
+        public byte[] getFrame() {
+            return frame;
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+package evolutionary;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Which islands of {@link IslandModel} receive emigrants of an island.
+ */
+public enum MigrationTopology {
+    /**
+     * Island i sends its emigrants to island i + 1, the last one to the first one.
+     */
+    RING,
+
+    /**
+     * Every island sends its emigrants to all other islands.
+     */
+    FULLY_CONNECTED,
+
+    /**
+     * Every migration an island sends its emigrants to one other island chosen at random.
+     */
+    RANDOM;
+
+    /**
+     * @param island  Number of sending island.
+     * @param islands Number of all islands.
+     * @param rand    Random number generator of sending island.
+     * @param targets Array of at least islands - 1 elements filled with numbers of receiving islands.
+     * @return Number of receiving islands.
+     */
+    public int targets(int island, int islands, RandomGenerator rand, int[] targets) {
+        if (islands < 2) {
+            return 0;
+        }
+
+        switch (this) {
+            case RING:
+                targets[0] = (island + 1) % islands;
+                return 1;
+
+            case FULLY_CONNECTED:
+                int count = 0;
+                for (int i = 0; i < islands; ++i) {
+                    if (i != island) {
+                        targets[count++] = i;
+                    }
+                }
+                return count;
+
+            default:
+                int target = rand.nextInt(islands - 1);
+                targets[0] = target < island ? target : target + 1;
+                return 1;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package evolutionary;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Self-adaptive mutation of rows of flat x and sigma blocks, done in place.
+ * For each row one common deviate N and per gene deviates N_j, N'_j are used:
+ * sigma_j = sigma_j * exp(tau * N + tauPrim * N_j), then x_j = x_j + sigma_j * N'_j.
+ * Normal deviates of a block of rows are drawn at once by {@link ZigguratSampler}, so the update loops run over
+ * primitive arrays only.
+ * Sparse mutation changes only a few chosen genes of a row in the same way.
+ */
+public class MutationKernel {
+    private static final int BLOCK_ROWS = 64;
+
+    private double[] normals = new double[0];
+    // Gene j was chosen for current row when marks[j] == stamp
+    private int[] marks = new int[0];
+    private int stamp = 0;
+
+
+    /*----- Methods -----*/
+
+    /**
+     * Mutates rows listed in a range of array.
+     *
+     * @param x       Flat x block.
+     * @param sigma   Flat sigma block.
+     * @param dim     Dimension of each row.
+     * @param rows    Rows to mutate.
+     * @param from    The first used element of rows.
+     * @param to      Element of rows after the last used one.
+     * @param tau     Learning rate of common deviate, 1 / sqrt(2 * dim).
+     * @param tauPrim Learning rate of per gene deviates, 1 / sqrt(2 * sqrt(dim)).
+     * @param rand    Source of random bits.
+     */
+    public void mutate(double[] x, double[] sigma, int dim, int[] rows, int from, int to, double tau, double tauPrim,
+                       RandomGenerator rand) {
+        int perRow = 2 * dim + 1;
+
+        for (int start = from; start < to; start += BLOCK_ROWS) {
+            int end = Math.min(start + BLOCK_ROWS, to);
+            int count = (end - start) * perRow;
+            if (normals.length < count) {
+                normals = new double[BLOCK_ROWS * perRow];
+            }
+            ZigguratSampler.fill(rand, normals, 0, count);
+
+            int k = 0;
+            for (int r = start; r < end; ++r) {
+                int offset = rows[r] * dim;
+                double common = tau * normals[k++];
+
+                for (int j = 0; j < dim; ++j) {
+                    sigma[offset + j] = sigma[offset + j] * Math.exp(common + tauPrim * normals[k + j]);
+                }
+                k += dim;
+
+                for (int j = 0; j < dim; ++j) {
+                    x[offset + j] = x[offset + j] + sigma[offset + j] * normals[k + j];
+                }
+                k += dim;
+            }
+        }
+    }
+
+    /**
+     * Chooses distinct genes of row uniformly with Floyd's sampling, in O(count log count).
+     *
+     * @param dim   Dimension of row.
+     * @param count Number of genes to choose, at most dim.
+     * @param rand  Source of random bits.
+     * @param genes Receives chosen genes in ascending order.
+     */
+    public void chooseGenes(int dim, int count, RandomGenerator rand, int[] genes) {
+        if (marks.length < dim) {
+            marks = new int[dim];
+            stamp = 0;
+        }
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(marks, 0);
+            stamp = 1;
+        }
+
+        for (int j = dim - count, k = 0; j < dim; ++j, ++k) {
+            int t = rand.nextInt(j + 1);
+            int gene = marks[t] == stamp ? j : t;
+            marks[gene] = stamp;
+            genes[k] = gene;
+        }
+        Arrays.sort(genes, 0, count);
+    }
+
+    /**
+     * Mutates chosen genes of one row, other genes and their sigmas are left unchanged.
+     *
+     * @param x       Flat x block.
+     * @param sigma   Flat sigma block.
+     * @param offset  Index of the first gene of row.
+     * @param genes   Genes to mutate.
+     * @param count   Number of used elements of genes array.
+     * @param tau     Learning rate of common deviate.
+     * @param tauPrim Learning rate of per gene deviates.
+     * @param rand    Source of random bits.
+     */
+    public void mutateGenes(double[] x, double[] sigma, int offset, int[] genes, int count, double tau, double tauPrim,
+                            RandomGenerator rand) {
+        if (normals.length < 2 * count + 1) {
+            normals = new double[2 * count + 1];
+        }
+        ZigguratSampler.fill(rand, normals, 0, 2 * count + 1);
+
+        double common = tau * normals[0];
+        for (int g = 0; g < count; ++g) {
+            int i = offset + genes[g];
+            sigma[i] = sigma[i] * Math.exp(common + tauPrim * normals[1 + g]);
+            x[i] = x[i] + sigma[i] * normals[1 + count + g];
+        }
+    }
+
+}
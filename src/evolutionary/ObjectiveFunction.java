@@ -0,0 +1,33 @@
+package evolutionary;
+
+/**
+ * Objective function minimized by evolution.
+ * Implementations are registered in {@link ObjectiveFunctions} and resolved once per evolution.
+ */
+public interface ObjectiveFunction {
+
+    /**
+     * @param x      Flat array of genes.
+     * @param offset Index of the first gene of evaluated individual.
+     * @param dim    Dimension of evaluated individual.
+     * @return Objective function value of the individual.
+     */
+    double evaluate(double[] x, int offset, int dim);
+
+    /**
+     * Scores a block of individuals kept in rows of flat gene array, row r occupies indices from r * dim to (r + 1) * dim.
+     *
+     * @param x      Flat array of genes.
+     * @param dim    Dimension of individuals.
+     * @param rows   Rows to evaluate.
+     * @param from   First index of rows array, inclusive.
+     * @param to     Last index of rows array, exclusive.
+     * @param values Objective function value of row r is written to values[r].
+     */
+    default void evaluateBatch(double[] x, int dim, int[] rows, int from, int to, double[] values) {
+        for (int i = from; i < to; ++i) {
+            values[rows[i]] = evaluate(x, rows[i] * dim, dim);
+        }
+    }
+
+}
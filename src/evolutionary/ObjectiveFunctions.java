@@ -0,0 +1,65 @@
+package evolutionary;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of objective functions by number.
+ * Contains CEC 2014 functions (without rotations and shifting), own functions can be added with {@link #register(int, Factory)}.
+ */
+public final class ObjectiveFunctions {
+    private static final Map<Integer, Factory> FACTORIES = new ConcurrentHashMap<>();
+
+    /**
+     * Creates objective function for given evolution.
+     */
+    public interface Factory {
+        /**
+         * @param evolution Evolution which will use the function, holds parameters of composition functions.
+         * @return New or shared instance of function.
+         */
+        ObjectiveFunction create(Evolution evolution);
+    }
+
+    static {
+        register(1, evolution -> new EllipticFunction());
+        register(2, evolution -> new BentCigarFunction());
+        register(3, evolution -> new DiscusFunction());
+        register(4, evolution -> new RosenbrockFunction());
+        register(6, evolution -> new WeierstrassFunction());
+        register(7, evolution -> new GriewankFunction());
+        register(8, evolution -> new RastriginFunction());
+        register(9, evolution -> new SchwefelFunction());
+        register(12, evolution -> new HGBatFunction());
+        register(23, CompositionFunction::new);
+        register(27, CompositionFunction::new);
+    }
+
+    private ObjectiveFunctions() {
+    }
+
+    /**
+     * Registers function under given number, replacing previous one.
+     *
+     * @param funcNum Number of function.
+     * @param factory Creates function for evolution.
+     */
+    public static void register(int funcNum, Factory factory) {
+        FACTORIES.put(funcNum, factory);
+    }
+
+    /**
+     * @param funcNum   Number of function.
+     * @param evolution Evolution which will use the function.
+     * @return Function registered under funcNum, or function equal to 10E9 everywhere when there is no such function.
+     */
+    public static ObjectiveFunction create(int funcNum, Evolution evolution) {
+        Factory factory = FACTORIES.get(funcNum);
+
+        if (factory == null) {
+            return new ConstantFunction(10E9);
+        }
+        return factory.create(evolution);
+    }
+
+}
@@ -0,0 +1,97 @@
+package evolutionary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stand-in for an external simulator, worker process of {@link ExternalObjectiveFunction}.
+ * Evaluates one of built-in functions (composition functions excluded, they need evolution) and can simulate slow
+ * evaluation and crash of simulator.
+ * <p>
+ * Arguments: number of function, delay of each row in milliseconds (optional, 0 by default) and number of requests
+ * after which the worker exits (optional, never by default).
+ */
+public class ObjectiveWorker {
+
+    /*----- Methods -----*/
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        ObjectiveFunction function = ObjectiveFunctions.create(Integer.parseInt(args[0]), null);
+        long delay = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        long exitAfter = args.length > 2 ? Long.parseLong(args[2]) : Long.MAX_VALUE;
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(System.out));
+
+        for (long served = 0; served < exitAfter; ++served) {
+            int id;
+            try {
+                id = in.readInt();
+            } catch (EOFException e) {
+                return;
+            }
+            int count = in.readInt();
+            int dim = in.readInt();
+
+            double[] x = new double[count * dim];
+            for (int i = 0; i < x.length; ++i) {
+                x[i] = in.readDouble();
+            }
+
+            if (delay > 0) {
+                Thread.sleep(delay * count);
+            }
+
+            double[] values = new double[count];
+            try {
+                for (int i = 0; i < count; ++i) {
+                    values[i] = function.evaluate(x, i * dim, dim);
+                }
+            } catch (RuntimeException e) {
+                out.writeInt(id);
+                out.writeInt(-1);
+                out.writeUTF(String.valueOf(e));
+                out.flush();
+                continue;
+            }
+
+            out.writeInt(id);
+            out.writeInt(count);
+            for (double value : values) {
+                out.writeDouble(value);
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * @param funcNum   Number of built-in function.
+     * @param delay     Delay of each row in milliseconds.
+     * @param exitAfter Number of requests after which worker exits, 0 for never.
+     * @return Command starting worker with the same Java and class path as this process.
+     */
+    public static List<String> command(int funcNum, long delay, long exitAfter) {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command()
+                .orElse(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java"));
+        command.add("--add-modules");
+        command.add("jdk.incubator.vector");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ObjectiveWorker.class.getName());
+        command.add(Integer.toString(funcNum));
+        command.add(Long.toString(delay));
+        if (exitAfter > 0) {
+            command.add(Long.toString(exitAfter));
+        }
+        return command;
+    }
+
+}
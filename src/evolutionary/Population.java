@@ -1,15 +1,50 @@
 package evolutionary;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.random.RandomGenerator;
 
 /**
+ * Population of individuals kept as rows of {@link PopulationStore}.
+ * Buffers of children and merged populations are reused between generations, so a generation does not allocate per gene.
+ *
  * @author sitekwb
  * @author opalkonrad
  */
 public class Population implements Cloneable {
-    private ArrayList<Individual> population;
-    private Random rand = new Random();
+    private PopulationStore store;
+    private RandomStreams streams;
+    private long streamKey = 0;
+    private long generation = 0;
+    private RandomGenerator selectionRand;
+    private RandomGenerator mutationRand;
+    private RandomGenerator weddingRand;
     private Evolution evolution;
+    private ObjectiveFunction function;
+    private ForkJoinPool evaluationPool;
+    private SelectionStrategy selection = new RouletteSelection();
+    private WeddingEngine wedding = new WeddingEngine();
+    private SurvivorSelection survivorSelection = SurvivorSelection.FULL_SORT;
+    private boolean sorted = false;
+    private long evaluations = 0;
+    private int sparseGenes = 0;
+    private int refreshInterval = 100;
+
+    // Buffers reused between generations
+    private Population children;
+    private PopulationStore mergeStore;
+    private double[] mergeObjFuncVal;
+    private int[] order;
+    private int[] orderTmp;
+    private int[] mutated;
+    private MutationKernel mutationKernel;
+    private int[] genes;
+    private int[] parents;
+
+    // Children not changed by mutation share genome with their parent (row of sourceStore), -1 when row has own genome
+    private int[] sources;
+    private PopulationStore sourceStore;
 
 
     /*----- Constructors -----*/
@@ -18,11 +53,14 @@ public class Population implements Cloneable {
      * Population default constructor with empty set of individuals.
      *
      * @param evolution reference to mother class Evolution
-     * @see ArrayList
+     * @param dim       dimension of each individual
+     * @param function  objective function, which will be optimized
      */
-    public Population(Evolution evolution) {
+    public Population(Evolution evolution, int dim, ObjectiveFunction function) {
         this.evolution = evolution;
-        population = new ArrayList<>();
+        this.function = function;
+        this.streams = evolution != null ? evolution.getRandomStreams() : null;
+        store = new PopulationStore(dim, 0);
     }
 
     /**
@@ -34,26 +72,56 @@ public class Population implements Cloneable {
      * @param xMin      minimum value of gene
      * @param xMax      maximum value of gene
      * @param sigmaMax  maximum sigma value (sigma randomly generated from 0 to sigmaMax
-     * @param funcNum   number of CEC 2014 function, which will be optimized
-     * @see Individual#Individual(Evolution, int, int, int, int, int)
-     * @see ArrayList
+     * @param function  objective function, which will be optimized
+     * @see PopulationStore
      */
-    public Population(Evolution evolution, int count, int dim, int xMin, int xMax, int sigmaMax, int funcNum) {
-        this.evolution = evolution;
-        population = new ArrayList<>();
-
-        for (int i = 0; i < count; ++i) {
-            this.addToPopulation(new Individual(evolution, dim, xMin, xMax, sigmaMax, funcNum));
-        }
+    public Population(Evolution evolution, int count, int dim, int xMin, int xMax, int sigmaMax, ObjectiveFunction function) {
+        this(evolution, count, dim, xMin, xMax, sigmaMax, function,
+                evolution != null ? evolution.getRandomStreams() : new RandomStreams(RandomStreams.randomSeed()));
     }
 
     /**
-     * @param evolution   reference to mother class Evolution
-     * @param individuals ArrayList of individuals which is copied to
+     * Population constructor, creating individuals with given parameters from given random streams
+     *
+     * @param evolution reference to mother class Evolution
+     * @param count     number of individuals in population
+     * @param dim       dimension of each individual
+     * @param xMin      minimum value of gene
+     * @param xMax      maximum value of gene
+     * @param sigmaMax  maximum sigma value (sigma randomly generated from 0 to sigmaMax
+     * @param function  objective function, which will be optimized
+     * @param streams   random streams of population, e.g. of one island
+     * @see PopulationStore
      */
-    public Population(Evolution evolution, ArrayList<Individual> individuals) {
+    public Population(Evolution evolution, int count, int dim, int xMin, int xMax, int sigmaMax, ObjectiveFunction function,
+                      RandomStreams streams) {
         this.evolution = evolution;
-        population = new ArrayList<>(individuals);
+        this.function = function;
+        this.streams = streams;
+        store = new PopulationStore(dim, count);
+        store.setSize(count);
+
+        RandomGenerator rand = streams.stream(RandomStreams.INITIAL_POPULATION);
+
+        double[] x = store.getX();
+        double[] sigma = store.getSigma();
+
+        for (int i = 0; i < count; ++i) {
+            int offset = store.offset(i);
+
+            // Evaluate random values of x and sigma array based on function parameters
+            for (int j = 0; j < dim; ++j) {
+                x[offset + j] = xMin + (xMax - xMin) * rand.nextDouble();
+                sigma[offset + j] = sigmaMax * rand.nextDouble();
+            }
+        }
+
+        // Counts objective function values of all rows in one batch
+        int[] rows = new int[count];
+        for (int i = 0; i < count; ++i) {
+            rows[i] = i;
+        }
+        evaluateRows(rows, count);
     }
 
 
@@ -63,107 +131,401 @@ public class Population implements Cloneable {
      * @return number of individuals
      */
     public int getSize() {
-        return population.size();
+        return store.getSize();
     }
 
     /**
-     * @return population reference
+     * @return store holding genes, sigmas and objective function values of individuals
      */
-    public ArrayList<Individual> getPopulation() {
-        return population;
+    public PopulationStore getStore() {
+        return store;
     }
 
     /**
-     * Set new population
-     *
-     * @param population New population
+     * @param i row of individual
+     * @return detached copy of individual
+     */
+    public Individual getIndividual(int i) {
+        return new Individual(store, i);
+    }
+
+    /**
+     * @return number of objective function evaluations requested by this population and its children
      */
-    public void setPopulation(ArrayList<Individual> population) {
-        this.population = population;
+    public long getEvaluations() {
+        return evaluations + (children != null ? children.getEvaluations() : 0);
     }
 
     /**
      * @return dimension of each individual
      */
     public int getDimension() {
-        return population.get(0).getDimension();
+        return store.getDimension();
+    }
+
+    /**
+     * @return streams of random numbers of this population
+     */
+    public RandomStreams getRandomStreams() {
+        return streams;
+    }
+
+    /**
+     * Sets streams of random numbers. Every generation selection, mutation and wedding draw from their own streams
+     * identified by key of population, operator and number of generation, so populations with different keys
+     * are independent and a generation can be repeated from its number alone.
+     *
+     * @param streams streams of random numbers, usually of evolution
+     * @param key     key of population, distinct for populations evolving side by side
+     */
+    public void setRandomStreams(RandomStreams streams, long key) {
+        this.streams = streams;
+        this.streamKey = key;
+        resetRandom();
+    }
+
+    /**
+     * @return number of generations performed by performEvolution
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @param generation number of performed generations, e.g. of population restored from checkpoint
+     */
+    void setGeneration(long generation) {
+        this.generation = generation;
+        resetRandom();
+    }
+
+    /**
+     * @return objective function of individuals
+     */
+    public ObjectiveFunction getObjectiveFunction() {
+        return function;
+    }
+
+    /**
+     * Changes objective function of this population and its children, values of current individuals are not recounted.
+     *
+     * @param function objective function, e.g. the same function wrapped in a cache
+     */
+    public void setObjectiveFunction(ObjectiveFunction function) {
+        this.function = function;
+        if (children != null) {
+            children.setObjectiveFunction(function);
+        }
+    }
+
+    /**
+     * @return pool evaluating children in parallel, or null when they are evaluated on the calling thread
+     */
+    public ForkJoinPool getEvaluationPool() {
+        return evaluationPool;
+    }
+
+    /**
+     * Sets parallel evaluation mode. Mutations still draw random numbers on the calling thread in the same order,
+     * so results are identical to the sequential mode.
+     *
+     * @param evaluationPool pool evaluating children in parallel, null to evaluate them on the calling thread
+     */
+    public void setEvaluationPool(ForkJoinPool evaluationPool) {
+        this.evaluationPool = evaluationPool;
+        if (children != null) {
+            children.setEvaluationPool(evaluationPool);
+        }
+    }
+
+    /**
+     * @return number of genes changed by mutation of individual, 0 when all genes are changed
+     */
+    public int getSparseGenes() {
+        return sparseGenes;
+    }
+
+    /**
+     * Sets sparse mutation, which changes only given number of randomly chosen genes of mutated individual.
+     * When objective function is a {@link SeparableFunction}, objective function value of mutated individual is
+     * then updated from its old raw value by terms of changed genes only. Survivors inherit these values, so rounding
+     * errors of the updates accumulate along lineages; every refreshInterval generations raw values of the whole
+     * population are counted from scratch after survivors are chosen, which removes them.
+     *
+     * @param sparseGenes     number of mutated genes of individual, 0 (default) or at least dimension to mutate all
+     * @param refreshInterval number of generations between full counting of the whole population, 100 by default,
+     *                        0 to never count it from scratch
+     */
+    public void setSparseMutation(int sparseGenes, int refreshInterval) {
+        this.sparseGenes = sparseGenes;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * @return strategy choosing parents of children
+     */
+    public SelectionStrategy getSelectionStrategy() {
+        return selection;
+    }
+
+    /**
+     * @param selection strategy choosing parents of children, roulette wheel by default
+     */
+    public void setSelectionStrategy(SelectionStrategy selection) {
+        this.selection = selection;
+    }
+
+    /**
+     * @return engine pairing individuals for wedding, its parallel threshold can be changed
+     */
+    public WeddingEngine getWeddingEngine() {
+        return wedding;
+    }
+
+    /**
+     * @return mode of choosing survivors in limitPopulation
+     */
+    public SurvivorSelection getSurvivorSelection() {
+        return survivorSelection;
+    }
+
+    /**
+     * @param survivorSelection mode of choosing survivors in limitPopulation, full sort by default
+     */
+    public void setSurvivorSelection(SurvivorSelection survivorSelection) {
+        this.survivorSelection = survivorSelection;
+    }
+
+    /**
+     * @return true when rows are ordered by objective function value ascending
+     */
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    /**
+     * @param sorted whether rows are known to be ordered by objective function value ascending, used by restored populations
+     */
+    void setSorted(boolean sorted) {
+        this.sorted = sorted;
     }
 
     public double getBestIndividual() {
-        if(population.size() > 0) {
-            return population.get(0).getObjFuncVal();
+        if (getSize() == 0) {
+            return 10E9;
+        }
+        if (sorted) {
+            return store.getObjFuncVal(0);
+        }
+
+        double best = store.getObjFuncVal(0);
+        for (int i = 1; i < getSize(); ++i) {
+            best = Math.min(best, store.getObjFuncVal(i));
         }
-        return 10E9;
+        return best;
     }
 
     public double getWorstIndividual() {
-        if(population.size() > 0) {
-            return population.get(population.size() - 1).getObjFuncVal();
+        if (getSize() == 0) {
+            return 10E9;
+        }
+        if (sorted) {
+            return store.getObjFuncVal(getSize() - 1);
+        }
+
+        double worst = store.getObjFuncVal(0);
+        for (int i = 1; i < getSize(); ++i) {
+            worst = Math.max(worst, store.getObjFuncVal(i));
         }
-        return 10E9;
+        return worst;
     }
 
 
     /*----- Methods -----*/
 
     /**
-     * @param individual reference of individual to add to population
-     * @see Population#population
+     * @param individual individual which genes, sigmas and objective function value are copied to new row
+     * @see PopulationStore
      */
     public void addToPopulation(Individual individual) {
-        population.add(individual);
+        int row = getSize();
+        store.setSize(row + 1);
+        store.makeWritable(true);
+
+        System.arraycopy(individual.getX(), 0, store.getX(), store.offset(row), getDimension());
+        System.arraycopy(individual.getSigma(), 0, store.getSigma(), store.offset(row), getDimension());
+        store.setObjFuncVal(row, individual.getObjFuncVal());
+        store.setRawObjFuncVal(row, individual.getRawObjFuncVal());
+        store.setMarried(row, individual.isMarried());
+        sorted = false;
+    }
+
+    /**
+     * Copies the best individuals, e.g. emigrants to another island.
+     *
+     * @param count number of individuals
+     * @return detached copies of at most count individuals, the best first
+     */
+    public Individual[] getBestIndividuals(int count) {
+        int size = getSize();
+        count = Math.min(count, size);
+        Individual[] best = new Individual[count];
+
+        if (!sorted) {
+            ensureMergeBuffers(size);
+            for (int i = 0; i < size; ++i) {
+                order[i] = i;
+            }
+            selectIndices(order, store.getObjFuncVal(), size, count);
+            sortIndices(order, orderTmp, store.getObjFuncVal(), count);
+        }
+
+        for (int i = 0; i < count; ++i) {
+            best[i] = getIndividual(sorted ? i : order[i]);
+        }
+        return best;
     }
 
     /**
-     * @param individuals set of many references of individuals to add to population
-     * @see Population#population
-     * @see ArrayList
-     * @see ArrayList#addAll(Collection)
+     * Copies the individual of the lowest raw objective function value, for married individuals it need not be the
+     * first of {@link #getBestIndividuals(int)}.
+     *
+     * @return detached copy of the individual, null for empty population
      */
-    public void addToPopulation(ArrayList<Individual> individuals) {
-        population.addAll(individuals);
+    public Individual getBestRawIndividual() {
+        if (getSize() == 0) {
+            return null;
+        }
+
+        int best = 0;
+        for (int i = 1; i < getSize(); ++i) {
+            if (store.getRawObjFuncVal(i) < store.getRawObjFuncVal(best)) {
+                best = i;
+            }
+        }
+        return getIndividual(best);
     }
 
     /**
-     * @param individual reference of individual to remove from population
-     * @see ArrayList#remove(Object)
+     * Replaces the worst individuals with given ones, e.g. immigrants from another island.
+     * New individuals are single, their objective function values are their raw values.
+     *
+     * @param individuals individuals to put in population
+     * @param count       number of used elements of individuals array, at most size of population
      */
-    public void removeFromPopulation(Individual individual) {
-        population.remove(individual);
+    public void replaceWorst(Individual[] individuals, int count) {
+        int size = getSize();
+        int dim = getDimension();
+        count = Math.min(count, size);
+        ensureMergeBuffers(size);
+
+        // The worst rows are at the end of order
+        for (int i = 0; i < size; ++i) {
+            order[i] = i;
+        }
+        if (!sorted) {
+            selectIndices(order, store.getObjFuncVal(), size, size - count);
+        }
+
+        store.makeWritable(true);
+        for (int i = 0; i < count; ++i) {
+            int row = order[size - 1 - i];
+            Individual individual = individuals[i];
+
+            System.arraycopy(individual.getX(), 0, store.getX(), store.offset(row), dim);
+            System.arraycopy(individual.getSigma(), 0, store.getSigma(), store.offset(row), dim);
+            store.setObjFuncVal(row, individual.getRawObjFuncVal());
+            store.setRawObjFuncVal(row, individual.getRawObjFuncVal());
+            store.setMarried(row, false);
+        }
+        if (count > 0) {
+            sorted = false;
+        }
     }
 
     /**
      * Removes last individuals from population to get newSize of population
      *
      * @param newSize new number of individuals in population
-     * @see ArrayList#remove(int)
      */
     public void removeFromPopulation(int newSize) {
-        for (int i = getSize() - 1; i >= newSize; --i) {
-            population.remove(i);
+        if (newSize < getSize()) {
+            store.setSize(newSize);
         }
     }
 
+    /**
+     * Counts objective function values of individuals from given rows and stores them,
+     * in parallel when evaluation pool is set.
+     *
+     * @param rows  rows of individuals
+     * @param count number of used elements of rows array
+     * @see ObjectiveFunction#evaluateBatch(double[], int, int[], int, int, double[])
+     */
+    void evaluateRows(int[] rows, int count) {
+        evaluations += count;
+        if (evaluationPool == null) {
+            evaluateRows(rows, 0, count);
+        } else {
+            evaluationPool.invoke(new EvaluationTask(this, rows, 0, count));
+        }
+    }
+
+    /**
+     * Counts raw objective function values of rows listed in a range of array in one batch,
+     * objective function values of unmarried individuals are equal to raw ones, married keep their averaged values.
+     */
+    private void evaluateRows(int[] rows, int from, int to) {
+        double[] raw = store.getRawObjFuncVal();
+        function.evaluateBatch(store.getX(), getDimension(), rows, from, to, raw);
+
+        for (int i = from; i < to; ++i) {
+            if (!store.isMarried(rows[i])) {
+                store.setObjFuncVal(rows[i], raw[rows[i]]);
+            }
+        }
+    }
+
+    /**
+     * Sorts individuals by objective function value ascending.
+     */
+    public void sort() {
+        int size = getSize();
+        ensureMergeBuffers(size);
+
+        for (int i = 0; i < size; ++i) {
+            order[i] = i;
+        }
+        sortIndices(order, orderTmp, store.getObjFuncVal(), size);
+
+        mergeStore.setSize(size);
+        mergeStore.makeWritable(false);
+        for (int i = 0; i < size; ++i) {
+            mergeStore.copyRow(store, order[i], i);
+        }
+        store.swap(mergeStore);
+        sorted = true;
+    }
+
     /**
      * Shows to standard output population details.
      *
      * @param detail flag whether to show details of population, or short summary
      */
     public void showPopulation(boolean detail) {
-        Individual bestIndividual = population.get(0);
-        System.out.println("Best individual 1:\nX      " + bestIndividual.getX() + "\nSigma  " + bestIndividual.getSigma() + "\nObjective function value = " + bestIndividual.getObjFuncVal() + "\n");
-
-        bestIndividual = population.get(1);
-        System.out.println("Best individual 2:\nX      " + bestIndividual.getX() + "\nSigma  " + bestIndividual.getSigma() + "\nObjective function value = " + bestIndividual.getObjFuncVal() + "\n");
+        if (!sorted) {
+            sort();
+        }
 
-        bestIndividual = population.get(2);
-        System.out.println("Best individual 3:\nX      " + bestIndividual.getX() + "\nSigma  " + bestIndividual.getSigma() + "\nObjective function value = " + bestIndividual.getObjFuncVal() + "\n");
+        for (int i = 0; i < 3; ++i) {
+            System.out.println("Best individual " + (i + 1) + ":\nX      " + Arrays.toString(store.copyX(i)) + "\nSigma  " + Arrays.toString(store.copySigma(i)) + "\nObjective function value = " + store.getObjFuncVal(i) + "\n");
+        }
 
         if (detail) {
             System.out.println("Additional info:");
 
-            for (Individual i : population) {
-                System.out.println("X     " + i.getX() + "\nSigma " + i.getSigma() + "\nObjective function value = " + i.getObjFuncVal() + "\n");
+            for (int i = 0; i < getSize(); ++i) {
+                System.out.println("X     " + Arrays.toString(store.copyX(i)) + "\nSigma " + Arrays.toString(store.copySigma(i)) + "\nObjective function value = " + store.getObjFuncVal(i) + "\n");
             }
         }
     }
@@ -171,112 +533,148 @@ public class Population implements Cloneable {
     /**
      * Modification of classical evolutionary algorithm. Connects individuals in pairs, averages their objective function value and confirms it in individual flag
      *
-     * @see Individual#setObjFuncVal(double)
-     * @see Individual#marry(Individual)
-     * @see Collections#shuffle(List)
+     * @see WeddingEngine#perform(PopulationStore, RandomGenerator, ForkJoinPool)
      */
     void performWedding() {
-        Collections.shuffle(population);
-        for (int i = 0; i < getSize(); i++) {
-            if (population.get(i).isMarried()) {
-                continue;
-            }
-
-            Individual first = population.get(i);
-
-            while (++i != getSize() && population.get(i).isMarried()) {
-            }
-
-            if (i != getSize()) {
-                first.marry(population.get(i));
-            }
+        if (weddingRand == null) {
+            reseed();
         }
+        wedding.perform(store, weddingRand, evaluationPool);
+        sorted = false;
     }
 
     /**
-     * On base of wheel roulette method creates new children population by copying individuals to new references and performing mutations on them.
+     * On base of selection strategy (wheel roulette method by default) creates new children population and performs
+     * mutations on it. Children refer to genomes of their parents, a genome is copied to row of children store only
+     * when mutation changes it. Returned population is reused by the next call and is valid until limitPopulation.
      *
      * @param count               size of new children population
      * @param mutationProbability probability of each mutation
      * @return children population
-     * @throws CloneNotSupportedException may throw exception, if clone is not supported
      * @author sitekwb
+     * @see SelectionStrategy
      * @see Population#performMutations(double)
      */
-    Population createChildrenPopulation(int count, double mutationProbability) throws CloneNotSupportedException {
-        double functionValueSum = 0;
-
-        //count sum of function values
-        for (Individual individual : population) {
-            functionValueSum += 1.0 / individual.getObjFuncVal(); //we minimize objective function, so the bigger objective function is, the smaller part of roulette wheel it occupies
+    Population createChildrenPopulation(int count, double mutationProbability) {
+        if (parents == null || parents.length < count) {
+            parents = new int[count];
         }
 
-        //generate count random numbers from 0 to functionValueSum
-        ArrayList<Double> randoms = new ArrayList<>();
-        for (int i = 0; i < count; ++i) {
-            randoms.add(rand.nextDouble() * functionValueSum);
+        if (selectionRand == null) {
+            reseed();
         }
+        int chosen = selection.select(store.getObjFuncVal(), getSize(), count, selectionRand, parents);
 
-        Collections.sort(randoms);
-
-        Population pop = new Population(evolution);
+        if (children == null) {
+            children = new Population(evolution, getDimension(), function);
+            children.setEvaluationPool(evaluationPool);
+        }
+        // Children are mutated with the mutation stream and mode of this population
+        children.mutationRand = mutationRand;
+        children.sparseGenes = sparseGenes;
+        PopulationStore childStore = children.getStore();
+        childStore.setSize(chosen);
+        if (children.sources == null || children.sources.length < count) {
+            children.sources = new int[count];
+        }
+        children.sourceStore = store;
 
-        //generate new population using roulette wheel
-        double wheelPointer = 0;
-        int randomsIndex = 0;
-        for (Individual individual : population) {
-            wheelPointer += 1.0 / individual.getObjFuncVal();
-            if (randomsIndex >= count) {
-                break;
-            }
-            //until random will not exceed wheelPointer, individual is cloned to child population
-            while (randoms.get(randomsIndex) <= wheelPointer) {
-                pop.addToPopulation((Individual) individual.clone());
-                if (++randomsIndex >= count) {
-                    break;
-                }
-            }
+        for (int i = 0; i < chosen; ++i) {
+            children.sources[i] = parents[i];
+            childStore.copyValues(store, parents[i], i);
+            childStore.setMarried(i, false);
         }
 
-        pop.performMutations(mutationProbability);
+        children.performMutations(mutationProbability);
 
-        return pop;
+        return children;
     }
 
     /**
-     * Performs random mutations on individual with probability given in parameters.
+     * Performs random mutations in place on individuals with probability given in parameters.
+     * Individuals to mutate are chosen first, genome shared with parent is copied to own row before it is mutated.
+     * Chosen rows are then mutated by {@link MutationKernel} with normal deviates drawn in blocks.
+     * Mutated individuals are evaluated afterwards, in parallel when evaluation pool is set.
+     * In sparse mode only some genes of each chosen row are mutated, see {@link #setSparseMutation(int, int)}.
      *
      * @param mutationProbability probability of mutations
      * @author opalkonrad
      */
     void performMutations(double mutationProbability) {
-        double tau = 1 / (Math.sqrt(2 * getDimension()));
-        double tauPrim = 1 / (Math.sqrt(2 * Math.sqrt(getDimension())));
+        if (mutationRand == null) {
+            reseed();
+        }
+        RandomGenerator rand = mutationRand;
+        int dim = getDimension();
+        double tau = 1 / (Math.sqrt(2 * dim));
+        double tauPrim = 1 / (Math.sqrt(2 * Math.sqrt(dim)));
+        store.makeWritable(true);
+        int mutatedCount = 0;
+
+        if (mutated == null || mutated.length < getSize()) {
+            mutated = new int[getSize()];
+        }
+        if (mutationKernel == null) {
+            mutationKernel = new MutationKernel();
+        }
 
-        for (Individual individual : population) {
+        for (int i = 0; i < getSize(); ++i) {
             // Mutate only some of the individuals in population
             if (rand.nextDouble() > mutationProbability) {
                 continue;
             }
 
-            ArrayList<Double> newX = new ArrayList<>();
-            ArrayList<Double> newSigma = new ArrayList<>();
+            if (sources != null && sources[i] >= 0) {
+                store.copyGenome(sourceStore, sources[i], i);
+                sources[i] = -1;
+            }
 
-            double normDistr = rand.nextGaussian();
+            mutated[mutatedCount++] = i;
+        }
 
-            for (double sigma : individual.getSigma()) {
-                newSigma.add(sigma * Math.exp(tau * normDistr + tauPrim * rand.nextGaussian()));
-            }
+        if (sparseGenes <= 0 || sparseGenes >= dim) {
+            mutationKernel.mutate(store.getX(), store.getSigma(), dim, mutated, 0, mutatedCount, tau, tauPrim, rand);
+            evaluateRows(mutated, mutatedCount);
+        } else {
+            performSparseMutations(mutatedCount, tau, tauPrim, rand);
+        }
+    }
+
+    /**
+     * Mutates sparseGenes genes of each of mutated rows and updates their objective function values by changed terms,
+     * or evaluates them from scratch when function is not separable.
+     */
+    private void performSparseMutations(int mutatedCount, double tau, double tauPrim, RandomGenerator rand) {
+        int dim = getDimension();
+        double[] x = store.getX();
+        double[] sigma = store.getSigma();
+        double[] raw = store.getRawObjFuncVal();
+        SeparableFunction separable = getSeparableFunction();
+
+        if (genes == null || genes.length < sparseGenes) {
+            genes = new int[sparseGenes];
+        }
+
+        for (int m = 0; m < mutatedCount; ++m) {
+            int row = mutated[m];
+            int offset = store.offset(row);
+            mutationKernel.chooseGenes(dim, sparseGenes, rand, genes);
 
-            int counter = 0;
-            for (double x : individual.getX()) {
-                newX.add(x + (newSigma.get(counter) * rand.nextGaussian()));
-                counter++;
+            if (separable == null) {
+                mutationKernel.mutateGenes(x, sigma, offset, genes, sparseGenes, tau, tauPrim, rand);
+                continue;
             }
 
-            individual.setX(newX);
-            individual.setSigma(newSigma);
-            individual.updateObjFuncVal();
+            double before = separable.sumOfTerms(x, offset, dim, genes, sparseGenes);
+            mutationKernel.mutateGenes(x, sigma, offset, genes, sparseGenes, tau, tauPrim, rand);
+            raw[row] += separable.sumOfTerms(x, offset, dim, genes, sparseGenes) - before;
+            store.setObjFuncVal(row, raw[row]);
+        }
+
+        if (separable == null) {
+            evaluateRows(mutated, mutatedCount);
+        } else {
+            evaluations += mutatedCount;
         }
     }
 
@@ -289,47 +687,275 @@ public class Population implements Cloneable {
      * @return new population after one evolution
      */
     public Population performEvolution(int lambda, boolean isWedding, double mutationProbability) {
+        reseed();
+
         if (isWedding) {
             performWedding();
         }
 
-        Population childrenPopulation = null;
-        try {
-            // Randomly generate lambda individuals using roulette wheel
-            childrenPopulation = createChildrenPopulation(lambda, mutationProbability);
-        } catch (CloneNotSupportedException e) {
-            e.printStackTrace();
-        }
+        // Randomly generate lambda individuals using roulette wheel
+        Population childrenPopulation = createChildrenPopulation(lambda, mutationProbability);
 
         // Limit population to original size
         Population finalPopulation = limitPopulation(childrenPopulation);
+        ++generation;
+
+        if (refreshInterval > 0 && generation % refreshInterval == 0 && sparseGenes > 0 && sparseGenes < getDimension()
+                && getSeparableFunction() != null) {
+            refreshValues();
+        }
 
         return finalPopulation;
     }
 
+    /**
+     * @return objective function updated by terms of changed genes, null when it is not separable
+     */
+    private SeparableFunction getSeparableFunction() {
+        // Cache would not be faster than update by a few terms
+        ObjectiveFunction inner = function instanceof CachedObjectiveFunction
+                ? ((CachedObjectiveFunction) function).getFunction() : function;
+        return inner instanceof SeparableFunction ? (SeparableFunction) inner : null;
+    }
+
+    /**
+     * Counts raw objective function values of the whole population from scratch, removing rounding errors accumulated
+     * by sparse mutation updates. Married individuals keep their averaged values until the next wedding.
+     */
+    private void refreshValues() {
+        int size = getSize();
+        if (mutated == null || mutated.length < size) {
+            mutated = new int[size];
+        }
+        for (int i = 0; i < size; ++i) {
+            mutated[i] = i;
+        }
+
+        evaluateRows(mutated, size);
+        sorted = false;
+    }
+
     /**
      * From combined original population and child population we choose new population by limiting it to original size
-     * (choosing individuals with best objective function).
+     * (choosing individuals with best objective function). Result replaces content of this population.
+     * Depending on survivor selection mode, all individuals are sorted, only the kept ones are sorted after quickselect,
+     * or kept ones are left unordered.
      *
      * @param childrenPopulation reference to population of children in evolution
-     * @return new population made of combined and limited parent and children evolution
+     * @return this population made of combined and limited parent and children evolution
      * @author sitekwb
      */
     public Population limitPopulation(Population childrenPopulation) {
-        // Create one references population
-        Population allPopulation = new Population(evolution, population);
-        allPopulation.addToPopulation(childrenPopulation.getPopulation());
+        PopulationStore childStore = childrenPopulation.getStore();
+        int size = getSize();
+        int total = size + childStore.getSize();
+        ensureMergeBuffers(total);
+
+        // Index parents first and children after them, like one combined population
+        for (int i = 0; i < size; ++i) {
+            order[i] = i;
+            mergeObjFuncVal[i] = store.getObjFuncVal(i);
+        }
+        for (int i = size; i < total; ++i) {
+            order[i] = i;
+            mergeObjFuncVal[i] = childStore.getObjFuncVal(i - size);
+        }
 
-        // Sort population by objective function value descending
-        allPopulation.getPopulation().sort(Comparator.comparingDouble(Individual::getObjFuncVal));
+        // Move the best individuals to the front, ordered by objective function value ascending when required
+        switch (survivorSelection) {
+            case FULL_SORT:
+                sortIndices(order, orderTmp, mergeObjFuncVal, total);
+                break;
 
-        allPopulation.removeFromPopulation(getSize());
+            case PARTIAL_SORT:
+                selectIndices(order, mergeObjFuncVal, total, size);
+                sortIndices(order, orderTmp, mergeObjFuncVal, size);
+                break;
 
-        return allPopulation;
+            default:
+                selectIndices(order, mergeObjFuncVal, total, size);
+        }
+
+        int[] childSources = childrenPopulation.sources;
+        mergeStore.setSize(size);
+        mergeStore.makeWritable(false);
+        for (int i = 0; i < size; ++i) {
+            int row = order[i];
+            if (row < size) {
+                mergeStore.copyRow(store, row, i);
+            } else if (childSources != null && childSources[row - size] >= 0) {
+                // Unmutated child, genome is still kept by its parent
+                mergeStore.copyGenome(childrenPopulation.sourceStore, childSources[row - size], i);
+                mergeStore.copyValues(childStore, row - size, i);
+            } else {
+                mergeStore.copyRow(childStore, row - size, i);
+            }
+        }
+        store.swap(mergeStore);
+        sorted = survivorSelection != SurvivorSelection.UNORDERED;
+
+        return this;
+    }
+
+    /**
+     * Evaluates rows listed in a range of array in batches, splitting the range between workers of fork-join pool.
+     */
+    @SuppressWarnings("serial")
+    private static class EvaluationTask extends RecursiveAction {
+        private static final int THRESHOLD = 16;
+
+        private final Population population;
+        private final int[] rows;
+        private final int from;
+        private final int to;
+
+        EvaluationTask(Population population, int[] rows, int from, int to) {
+            this.population = population;
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                population.evaluateRows(rows, from, to);
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(new EvaluationTask(population, rows, from, mid), new EvaluationTask(population, rows, mid, to));
+        }
+    }
+
+    /**
+     * Creates generators of selection, mutation and wedding streams of current generation.
+     */
+    private void reseed() {
+        if (streams == null) {
+            streams = new RandomStreams(RandomStreams.randomSeed());
+        }
+        selectionRand = streams.stream(streamKey, RandomStreams.SELECTION, generation);
+        mutationRand = streams.stream(streamKey, RandomStreams.MUTATION, generation);
+        weddingRand = streams.stream(streamKey, RandomStreams.WEDDING, generation);
+    }
+
+    private void resetRandom() {
+        selectionRand = null;
+        mutationRand = null;
+        weddingRand = null;
+    }
+
+    private void ensureMergeBuffers(int total) {
+        if (mergeStore == null) {
+            mergeStore = new PopulationStore(getDimension(), getSize());
+        }
+        if (order == null || order.length < total) {
+            order = new int[total];
+            orderTmp = new int[total];
+            mergeObjFuncVal = new double[total];
+        }
     }
 
     /**
-     * Clone Population with new individuals array equal to cloneable object.
+     * Stable bottom-up merge sort of indices by keys, keeps the order Collections.sort gave to equal values.
+     *
+     * @param idx  indices to sort
+     * @param tmp  buffer of at least n elements
+     * @param keys values indexed by idx
+     * @param n    number of indices
+     */
+    static void sortIndices(int[] idx, int[] tmp, double[] keys, int n) {
+        int[] src = idx;
+        int[] dst = tmp;
+
+        for (int width = 1; width < n; width <<= 1) {
+            for (int lo = 0; lo < n; lo += width << 1) {
+                int mid = Math.min(lo + width, n);
+                int hi = Math.min(lo + (width << 1), n);
+                int a = lo;
+                int b = mid;
+                int k = lo;
+
+                while (a < mid && b < hi) {
+                    dst[k++] = Double.compare(keys[src[b]], keys[src[a]]) < 0 ? src[b++] : src[a++];
+                }
+                while (a < mid) {
+                    dst[k++] = src[a++];
+                }
+                while (b < hi) {
+                    dst[k++] = src[b++];
+                }
+            }
+
+            int[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+
+        if (src != idx) {
+            System.arraycopy(src, 0, idx, 0, n);
+        }
+    }
+
+    /**
+     * Quickselect with Hoare partition, moves k smallest keys to the first k positions of idx in any order.
+     * Equal keys (e.g. unmutated copies of one parent) are split evenly between both sides of partition.
+     *
+     * @param idx  indices to partition
+     * @param keys values indexed by idx
+     * @param n    number of indices
+     * @param k    number of smallest keys to move to the front
+     */
+    static void selectIndices(int[] idx, double[] keys, int n, int k) {
+        int lo = 0;
+        int hi = n - 1;
+
+        while (k > 0 && k < n && lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            double pivot = median(keys[idx[lo]], keys[idx[mid]], keys[idx[hi]]);
+            int i = lo;
+            int j = hi;
+
+            while (i <= j) {
+                while (Double.compare(keys[idx[i]], pivot) < 0) {
+                    ++i;
+                }
+                while (Double.compare(keys[idx[j]], pivot) > 0) {
+                    --j;
+                }
+                if (i <= j) {
+                    int tmp = idx[i];
+                    idx[i++] = idx[j];
+                    idx[j--] = tmp;
+                }
+            }
+
+            // Keys on positions lo..j are not greater and on positions i..hi not less than pivot
+            if (k - 1 <= j) {
+                hi = j;
+            } else if (k - 1 >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static double median(double a, double b, double c) {
+        if (Double.compare(a, b) > 0) {
+            double tmp = a;
+            a = b;
+            b = tmp;
+        }
+        if (Double.compare(b, c) > 0) {
+            b = c;
+        }
+        return Double.compare(a, b) > 0 ? a : b;
+    }
+
+    /**
+     * Clone Population with new store equal to cloneable object, sharing genomes copy-on-write.
      *
      * @return New Population.
      * @throws CloneNotSupportedException When cannot clone the object.
@@ -338,14 +964,22 @@ public class Population implements Cloneable {
     public Object clone() throws CloneNotSupportedException {
         Population clone = (Population) super.clone();
 
-        ArrayList<Individual> popTmp = new ArrayList<>();
-
-        // Copy population
-        for (Individual i : population) {
-            popTmp.add((Individual) i.clone());
-        }
-
-        clone.setPopulation(popTmp);
+        // Genomes are shared until one of populations writes them, buffers are not shared
+        clone.store = (PopulationStore) store.clone();
+        clone.children = null;
+        clone.mergeStore = null;
+        clone.mergeObjFuncVal = null;
+        clone.order = null;
+        clone.orderTmp = null;
+        clone.wedding = wedding.copy();
+        clone.mutated = null;
+        clone.mutationKernel = null;
+        clone.genes = null;
+        clone.parents = null;
+        clone.sources = null;
+        clone.sourceStore = null;
+        clone.selection = selection.copy();
+        clone.resetRandom();
 
         return clone;
     }
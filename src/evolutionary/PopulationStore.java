@@ -0,0 +1,317 @@
+package evolutionary;
+
+import java.util.Arrays;
+
+/**
+ * Structure-of-arrays storage of individuals.
+ * Genes and sigmas of all individuals are kept in flat primitive blocks, one row of dim values per individual,
+ * objective function values and wedlock flags are kept in parallel arrays indexed by row.
+ * Raw objective function value is kept apart from the one changed by wedding.
+ * Clones share gene and sigma blocks (copy-on-write), a store has to be made writable before its genomes are changed.
+ */
+public class PopulationStore implements Cloneable {
+    private int dim;
+    private int size;
+    private double[] x;
+    private double[] sigma;
+    private double[] objFuncVal;
+    private double[] rawObjFuncVal;
+    private boolean[] married;
+    private boolean genomeShared = false;
+
+
+    /*----- Constructors -----*/
+
+    /**
+     * @param dim      Dimension of each row.
+     * @param capacity Number of rows that can be stored without growing the arrays.
+     */
+    public PopulationStore(int dim, int capacity) {
+        this.dim = dim;
+        this.size = 0;
+        x = new double[dim * capacity];
+        sigma = new double[dim * capacity];
+        objFuncVal = new double[capacity];
+        rawObjFuncVal = new double[capacity];
+        married = new boolean[capacity];
+    }
+
+
+    /*----- Getters & setters -----*/
+
+    /**
+     * @return Number of used rows.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Changes number of used rows, growing arrays when needed. Content of new rows is undefined.
+     *
+     * @param size New number of used rows.
+     */
+    public void setSize(int size) {
+        ensureCapacity(size);
+        this.size = size;
+    }
+
+    /**
+     * @return Dimension of each row.
+     */
+    public int getDimension() {
+        return dim;
+    }
+
+    /**
+     * @return True when gene and sigma blocks may be shared with another store.
+     */
+    public boolean isGenomeShared() {
+        return genomeShared;
+    }
+
+    /**
+     * @return Flat x block, individual i occupies indices from i * dim to (i + 1) * dim.
+     * @see PopulationStore#makeWritable(boolean)
+     */
+    public double[] getX() {
+        return x;
+    }
+
+    /**
+     * @return Flat sigma block with the same layout as x block.
+     * @see PopulationStore#makeWritable(boolean)
+     */
+    public double[] getSigma() {
+        return sigma;
+    }
+
+    /**
+     * @return Objective function values indexed by row.
+     */
+    public double[] getObjFuncVal() {
+        return objFuncVal;
+    }
+
+    /**
+     * @param i Row number.
+     * @return Objective function value of row i.
+     */
+    public double getObjFuncVal(int i) {
+        return objFuncVal[i];
+    }
+
+    /**
+     * @param i          Row number.
+     * @param objFuncVal New objective function value of row i.
+     */
+    public void setObjFuncVal(int i, double objFuncVal) {
+        this.objFuncVal[i] = objFuncVal;
+    }
+
+    /**
+     * @return Objective function values counted by objective function (not changed by wedding), indexed by row.
+     */
+    public double[] getRawObjFuncVal() {
+        return rawObjFuncVal;
+    }
+
+    /**
+     * @param i Row number.
+     * @return Objective function value of row i counted by objective function.
+     */
+    public double getRawObjFuncVal(int i) {
+        return rawObjFuncVal[i];
+    }
+
+    /**
+     * @param i             Row number.
+     * @param rawObjFuncVal New raw objective function value of row i.
+     */
+    public void setRawObjFuncVal(int i, double rawObjFuncVal) {
+        this.rawObjFuncVal[i] = rawObjFuncVal;
+    }
+
+    /**
+     * @return Wedlock flags indexed by row.
+     */
+    public boolean[] getMarried() {
+        return married;
+    }
+
+    /**
+     * @param i Row number.
+     * @return True when individual in row i is married.
+     */
+    public boolean isMarried(int i) {
+        return married[i];
+    }
+
+    /**
+     * @param i       Row number.
+     * @param married Sets wedlock of row i.
+     */
+    public void setMarried(int i, boolean married) {
+        this.married[i] = married;
+    }
+
+    /**
+     * @param i Row number.
+     * @return Index of the first gene of row i in x and sigma blocks.
+     */
+    public int offset(int i) {
+        return i * dim;
+    }
+
+
+    /*----- Methods -----*/
+
+    /**
+     * Grows arrays so that at least capacity rows fit, existing rows are preserved.
+     *
+     * @param capacity Required number of rows.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= objFuncVal.length) {
+            return;
+        }
+
+        int newCapacity = Math.max(capacity, objFuncVal.length + (objFuncVal.length >> 1));
+        x = Arrays.copyOf(x, newCapacity * dim);
+        sigma = Arrays.copyOf(sigma, newCapacity * dim);
+        objFuncVal = Arrays.copyOf(objFuncVal, newCapacity);
+        rawObjFuncVal = Arrays.copyOf(rawObjFuncVal, newCapacity);
+        married = Arrays.copyOf(married, newCapacity);
+        genomeShared = false;
+    }
+
+    /**
+     * Gives this store its own gene and sigma blocks if they are shared with another store.
+     *
+     * @param keepContent Whether to copy current genomes, false when all rows are going to be overwritten.
+     */
+    public void makeWritable(boolean keepContent) {
+        if (!genomeShared) {
+            return;
+        }
+
+        x = keepContent ? Arrays.copyOf(x, x.length) : new double[x.length];
+        sigma = keepContent ? Arrays.copyOf(sigma, sigma.length) : new double[sigma.length];
+        genomeShared = false;
+    }
+
+    /**
+     * Copies whole row (genes, sigmas, objective function values and wedlock) from another store.
+     *
+     * @param src    Source store, may be this store.
+     * @param srcRow Row in source store.
+     * @param dstRow Row in this store.
+     */
+    public void copyRow(PopulationStore src, int srcRow, int dstRow) {
+        System.arraycopy(src.x, srcRow * dim, x, dstRow * dim, dim);
+        System.arraycopy(src.sigma, srcRow * dim, sigma, dstRow * dim, dim);
+        objFuncVal[dstRow] = src.objFuncVal[srcRow];
+        rawObjFuncVal[dstRow] = src.rawObjFuncVal[srcRow];
+        married[dstRow] = src.married[srcRow];
+    }
+
+    /**
+     * Copies objective function values and wedlock of row from another store, genome is left unchanged.
+     *
+     * @param src    Source store, may be this store.
+     * @param srcRow Row in source store.
+     * @param dstRow Row in this store.
+     */
+    public void copyValues(PopulationStore src, int srcRow, int dstRow) {
+        objFuncVal[dstRow] = src.objFuncVal[srcRow];
+        rawObjFuncVal[dstRow] = src.rawObjFuncVal[srcRow];
+        married[dstRow] = src.married[srcRow];
+    }
+
+    /**
+     * Copies genes and sigmas of row from another store, objective function values and wedlock are left unchanged.
+     *
+     * @param src    Source store, may be this store.
+     * @param srcRow Row in source store.
+     * @param dstRow Row in this store.
+     */
+    public void copyGenome(PopulationStore src, int srcRow, int dstRow) {
+        System.arraycopy(src.x, srcRow * dim, x, dstRow * dim, dim);
+        System.arraycopy(src.sigma, srcRow * dim, sigma, dstRow * dim, dim);
+    }
+
+    /**
+     * Copies row i to a new array.
+     *
+     * @param i Row number.
+     * @return Copy of x of row i.
+     */
+    public double[] copyX(int i) {
+        return Arrays.copyOfRange(x, i * dim, (i + 1) * dim);
+    }
+
+    /**
+     * Copies row i to a new array.
+     *
+     * @param i Row number.
+     * @return Copy of sigma of row i.
+     */
+    public double[] copySigma(int i) {
+        return Arrays.copyOfRange(sigma, i * dim, (i + 1) * dim);
+    }
+
+    /**
+     * Exchanges arrays with another store of the same dimension, used to recycle buffers between generations.
+     *
+     * @param other Store to swap content with.
+     */
+    public void swap(PopulationStore other) {
+        double[] tmp = x;
+        x = other.x;
+        other.x = tmp;
+
+        tmp = sigma;
+        sigma = other.sigma;
+        other.sigma = tmp;
+
+        tmp = objFuncVal;
+        objFuncVal = other.objFuncVal;
+        other.objFuncVal = tmp;
+
+        tmp = rawObjFuncVal;
+        rawObjFuncVal = other.rawObjFuncVal;
+        other.rawObjFuncVal = tmp;
+
+        boolean[] tmpMarried = married;
+        married = other.married;
+        other.married = tmpMarried;
+
+        int tmpSize = size;
+        size = other.size;
+        other.size = tmpSize;
+
+        boolean tmpShared = genomeShared;
+        genomeShared = other.genomeShared;
+        other.genomeShared = tmpShared;
+    }
+
+    /**
+     * Copy sharing gene and sigma blocks with this store, objective function values and wedlock flags are copied.
+     *
+     * @return New store.
+     * @throws CloneNotSupportedException When cannot clone the object.
+     */
+    @Override
+    public Object clone() throws CloneNotSupportedException {
+        PopulationStore clone = (PopulationStore) super.clone();
+
+        genomeShared = true;
+        clone.genomeShared = true;
+        clone.objFuncVal = Arrays.copyOf(objFuncVal, objFuncVal.length);
+        clone.rawObjFuncVal = Arrays.copyOf(rawObjFuncVal, rawObjFuncVal.length);
+        clone.married = Arrays.copyOf(married, married.length);
+
+        return clone;
+    }
+
+}
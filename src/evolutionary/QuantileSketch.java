@@ -0,0 +1,186 @@
+package evolutionary;
+
+/**
+ * Mergeable sketch of distribution answering quantiles with bounded relative error (DDSketch of Masson et al.).
+ * Values are counted in logarithmic buckets, bucket i holds values from gamma^(i-1) to gamma^i where
+ * gamma = (1 + alpha) / (1 - alpha), so every quantile is within relative error alpha of a value really added.
+ * Sketches of the same accuracy merge by adding counts, so partial sketches built on many threads give exactly the
+ * sketch of all values.
+ */
+public class QuantileSketch {
+    public static final double DEFAULT_ACCURACY = 0.01;
+
+    private final double accuracy;
+    private final double logGamma;
+    private final Buckets positive = new Buckets();
+    private final Buckets negative = new Buckets();
+    private long zeroCount = 0;
+    private long count = 0;
+
+
+    /*----- Constructors -----*/
+
+    /**
+     * Sketch with relative accuracy of 1%.
+     */
+    public QuantileSketch() {
+        this(DEFAULT_ACCURACY);
+    }
+
+    /**
+     * @param accuracy Relative accuracy of quantiles, between 0 and 1.
+     */
+    public QuantileSketch(double accuracy) {
+        if (!(accuracy > 0 && accuracy < 1)) {
+            throw new IllegalArgumentException("Accuracy must be between 0 and 1");
+        }
+
+        this.accuracy = accuracy;
+        this.logGamma = Math.log((1 + accuracy) / (1 - accuracy));
+    }
+
+
+    /*----- Getters & setters -----*/
+
+    /**
+     * @return Relative accuracy of quantiles.
+     */
+    public double getAccuracy() {
+        return accuracy;
+    }
+
+    /**
+     * @return Number of added values.
+     */
+    public long getCount() {
+        return count;
+    }
+
+
+    /*----- Methods -----*/
+
+    /**
+     * @param value Value to add, NaN is ignored.
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+
+        if (value > Double.MIN_NORMAL) {
+            positive.add(index(value), 1);
+        } else if (value < -Double.MIN_NORMAL) {
+            negative.add(index(-value), 1);
+        } else {
+            ++zeroCount;
+        }
+        ++count;
+    }
+
+    /**
+     * Adds all values of another sketch of the same accuracy.
+     *
+     * @param other Sketch to merge, not changed.
+     */
+    public void merge(QuantileSketch other) {
+        if (other.accuracy != accuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches of different accuracy");
+        }
+
+        positive.merge(other.positive);
+        negative.merge(other.negative);
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+
+    /**
+     * @param q Quantile between 0 and 1, 0.5 is median.
+     * @return Estimate of quantile, NaN when sketch is empty.
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+
+        long rank = (long) (q * (count - 1));
+
+        // Negative values from the largest magnitude, then zeros, then positive values from the smallest
+        long seen = 0;
+        for (int i = negative.counts.length - 1; i >= 0; --i) {
+            seen += negative.counts[i];
+            if (seen > rank) {
+                return -value(negative.offset + i);
+            }
+        }
+        seen += zeroCount;
+        if (seen > rank) {
+            return 0;
+        }
+        for (int i = 0; i < positive.counts.length; ++i) {
+            seen += positive.counts[i];
+            if (seen > rank) {
+                return value(positive.offset + i);
+            }
+        }
+        return value(positive.offset + positive.counts.length - 1);
+    }
+
+    /**
+     * @return Copy of sketch.
+     */
+    public QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch(accuracy);
+        copy.merge(this);
+        return copy;
+    }
+
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    /**
+     * @return Value in the middle of bucket in terms of relative error.
+     */
+    private double value(int index) {
+        return 2 * Math.exp(index * logGamma) / (1 + Math.exp(logGamma));
+    }
+
+    /**
+     * Counts of consecutive buckets, grown when a value falls outside of them.
+     */
+    private static class Buckets {
+        private long[] counts = new long[0];
+        private int offset = 0;
+
+        void add(int index, long n) {
+            if (counts.length == 0) {
+                counts = new long[16];
+                offset = index - 8;
+            } else if (index < offset || index >= offset + counts.length) {
+                int from = Math.min(offset, index);
+                int to = Math.max(offset + counts.length, index + 1);
+                // Grow by at least half, so that a widening range costs amortised constant time
+                int length = Math.max(to - from, counts.length + counts.length / 2);
+                int newOffset = index < offset ? to - length : from;
+
+                long[] grown = new long[length];
+                System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+                counts = grown;
+                offset = newOffset;
+            }
+            counts[index - offset] += n;
+        }
+
+        void merge(Buckets other) {
+            for (int i = 0; i < other.counts.length; ++i) {
+                if (other.counts[i] != 0) {
+                    add(other.offset + i, other.counts[i]);
+                }
+            }
+        }
+    }
+
+}
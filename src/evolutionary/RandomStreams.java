@@ -0,0 +1,101 @@
+package evolutionary;
+
+import java.security.SecureRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Source of independent random number streams derived from one master seed.
+ * A stream is identified by keys (e.g. population, operator and generation), its seed is the master seed mixed with
+ * keys by SplitMix64 finalizer, so a stream does not depend on which other streams were created, in which order or
+ * on which thread. Runs with the same master seed are therefore identical in sequential and parallel modes.
+ * Streams are L64X128MixRandom generators, which are fast, small and statistically independent for different seeds.
+ */
+public final class RandomStreams {
+    public static final String ALGORITHM = "L64X128MixRandom";
+
+    // Keys of streams used by evolution
+    public static final long OPTIMA = 1;
+    public static final long INITIAL_POPULATION = 2;
+    public static final long POPULATION_WITH_WEDDING = 3;
+    public static final long POPULATION_WITHOUT_WEDDING = 4;
+    public static final long SELECTION = 5;
+    public static final long MUTATION = 6;
+    public static final long WEDDING = 7;
+    public static final long RUN = 8;
+    public static final long ISLAND = 9;
+    public static final long MIGRATION = 10;
+
+    private static final RandomGeneratorFactory<RandomGenerator> FACTORY = RandomGeneratorFactory.of(ALGORITHM);
+    private static final SecureRandom SEEDS = new SecureRandom();
+
+    private final long seed;
+
+
+    /*----- Constructors -----*/
+
+    /**
+     * @param seed Master seed.
+     */
+    public RandomStreams(long seed) {
+        this.seed = seed;
+    }
+
+
+    /*----- Getters & setters -----*/
+
+    /**
+     * @return Master seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+
+    /*----- Methods -----*/
+
+    /**
+     * @return New master seed which is not reproducible, used when no seed is given.
+     */
+    public static long randomSeed() {
+        return SEEDS.nextLong();
+    }
+
+    /**
+     * @param keys Keys identifying stream.
+     * @return Seed of stream, the same for the same master seed and keys.
+     */
+    public long seed(long... keys) {
+        long h = mix(seed);
+        for (long key : keys) {
+            h = mix(h ^ mix(key + 0x9E3779B97F4A7C15L));
+        }
+        return h;
+    }
+
+    /**
+     * @param keys Keys identifying stream.
+     * @return New generator of stream, it must be used by one thread at a time.
+     */
+    public RandomGenerator stream(long... keys) {
+        return FACTORY.create(seed(keys));
+    }
+
+    /**
+     * @param keys Keys identifying subsystem, e.g. number of run in experiment.
+     * @return Independent streams with master seed derived from keys.
+     */
+    public RandomStreams split(long... keys) {
+        return new RandomStreams(seed(keys));
+    }
+
+    /**
+     * SplitMix64 finalizer (variant 13 of Stafford), bijective mixing of all bits.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+}
@@ -0,0 +1,34 @@
+package evolutionary;
+
+import static java.lang.Math.PI;
+import static java.lang.Math.cos;
+
+/**
+ * Rastrigin's Function (CEC 2014 F8, without rotations and shifting).
+ */
+public final class RastriginFunction implements SeparableFunction {
+
+    @Override
+    public double evaluate(double[] x, int offset, int dim) {
+        double sum = 0;
+
+        for (int i = offset; i < offset + dim; ++i) {
+            double x_i = x[i];
+            sum += x_i * x_i - 10 * cos(2 * PI * x_i) + 10;
+        }
+
+        return sum;
+    }
+
+    @Override
+    public double term(double[] x, int offset, int dim, int i) {
+        double x_i = x[offset + i];
+        return x_i * x_i - 10 * cos(2 * PI * x_i) + 10;
+    }
+
+    @Override
+    public void evaluateBatch(double[] x, int dim, int[] rows, int from, int to, double[] values) {
+        EvaluationKernels.get().rastrigin(x, dim, rows, from, to, values);
+    }
+
+}
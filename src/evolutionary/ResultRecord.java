@@ -0,0 +1,77 @@
+package evolutionary;
+
+/**
+ * One row of results: objective function values of one arm of one run after one generation.
+ */
+public class ResultRecord {
+    private final long runId;
+    private final int funcNum;
+    private final double mutationProbability;
+    private final int arm;
+    private final int generation;
+    private final double best;
+    private final double worst;
+    private final double mean;
+
+
+    /*----- Constructors -----*/
+
+    /**
+     * @param runId               Identifier of run, unique in experiment.
+     * @param funcNum             Number of objective function.
+     * @param mutationProbability Probability of performing mutations.
+     * @param arm                 One of {@link ExperimentSummary#INITIAL}, {@link ExperimentSummary#WITH_WEDDING}
+     *                            and {@link ExperimentSummary#WITHOUT_WEDDING}.
+     * @param generation          Number of finished generations.
+     * @param best                The best objective function value.
+     * @param worst               The worst objective function value.
+     * @param mean                Mean objective function value.
+     */
+    public ResultRecord(long runId, int funcNum, double mutationProbability, int arm, int generation, double best,
+                        double worst, double mean) {
+        this.runId = runId;
+        this.funcNum = funcNum;
+        this.mutationProbability = mutationProbability;
+        this.arm = arm;
+        this.generation = generation;
+        this.best = best;
+        this.worst = worst;
+        this.mean = mean;
+    }
+
+
+    /*----- Getters & setters -----*/
+
+    public long getRunId() {
+        return runId;
+    }
+
+    public int getFuncNum() {
+        return funcNum;
+    }
+
+    public double getMutationProbability() {
+        return mutationProbability;
+    }
+
+    public int getArm() {
+        return arm;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    public double getBest() {
+        return best;
+    }
+
+    public double getWorst() {
+        return worst;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+}
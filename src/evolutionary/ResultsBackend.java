@@ -0,0 +1,29 @@
+package evolutionary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Storage of results written by {@link ResultsSink}, called from its writer thread only.
+ */
+public interface ResultsBackend extends Closeable {
+    /**
+     * @param records Batch of result rows, in order of arrival.
+     * @throws IOException When rows cannot be written.
+     */
+    void writeResults(List<ResultRecord> records) throws IOException;
+
+    /**
+     * @param genomes Batch of genomes, in order of arrival.
+     * @throws IOException When genomes cannot be written.
+     */
+    void writeGenomes(List<GenomeRecord> genomes) throws IOException;
+
+    /**
+     * Pushes everything written so far to storage.
+     *
+     * @throws IOException When storage fails.
+     */
+    void flush() throws IOException;
+}
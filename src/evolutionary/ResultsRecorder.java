@@ -0,0 +1,120 @@
+package evolutionary;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Flow;
+
+/**
+ * Feeds {@link ResultsSink} with results of runs of {@link ExperimentGrid}: initial population of every run, summary
+ * of every generation of both populations and optionally genomes of the best individuals at the end of the first
+ * runs of every cell.
+ * Summaries of generations are delivered on evolution threads and never dropped, so no generation is lost.
+ * Run j of cell i (in order of cells) has id i * runs + j.
+ */
+public class ResultsRecorder implements ExperimentRunner.Listener {
+    private final ResultsSink sink;
+    private final Map<String, ExperimentGrid.Cell> cells = new HashMap<>();
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final int runs;
+    private int genomeRuns = 0;
+    private int genomeIndividuals = 3;
+
+
+    /*----- Constructors -----*/
+
+    /**
+     * @param sink  Sink receiving results.
+     * @param cells Cells of grid, see {@link ExperimentGrid#cells()}.
+     * @param runs  Number of runs of each cell.
+     */
+    public ResultsRecorder(ResultsSink sink, List<ExperimentGrid.Cell> cells, int runs) {
+        this.sink = sink;
+        this.runs = runs;
+
+        for (int i = 0; i < cells.size(); ++i) {
+            this.cells.put(cells.get(i).getName(), cells.get(i));
+            ordinals.put(cells.get(i).getName(), i);
+        }
+    }
+
+
+    /*----- Getters & setters -----*/
+
+    /**
+     * Turns on dump of genomes, off by default.
+     *
+     * @param genomeRuns        Number of the first runs of each cell whose genomes are dumped.
+     * @param genomeIndividuals Number of the best individuals of each population dumped, 3 by default.
+     */
+    public void setGenomeDump(int genomeRuns, int genomeIndividuals) {
+        this.genomeRuns = genomeRuns;
+        this.genomeIndividuals = genomeIndividuals;
+    }
+
+    /**
+     * @param group Name of cell.
+     * @param index Number of run in cell.
+     * @return Identifier of run in results.
+     */
+    public long runId(String group, int index) {
+        return (long) ordinals.get(group) * runs + index;
+    }
+
+
+    /*----- Methods -----*/
+
+    @Override
+    public void runStarted(String group, int index, Evolution evolution) {
+        ExperimentGrid.Cell cell = cells.get(group);
+        long runId = runId(group, index);
+
+        GenerationSummary initial = GenerationSummary.of(false, 0, evolution.getPopulation(ExperimentSummary.INITIAL), 0);
+        sink.write(new ResultRecord(runId, cell.getFuncNum(), cell.getMutationProbability(), ExperimentSummary.INITIAL,
+                0, initial.getBest(), initial.getWorst(), initial.getMean()));
+
+        // Delivered on evolution threads through an unbounded queue, so summaries of concurrent arms are never dropped
+        GenerationPublisher publisher = new GenerationPublisher(Runnable::run, Integer.MAX_VALUE);
+        publisher.subscribe(new Flow.Subscriber<GenerationSummary>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(GenerationSummary summary) {
+                int arm = summary.isWedding() ? ExperimentSummary.WITH_WEDDING : ExperimentSummary.WITHOUT_WEDDING;
+                sink.write(new ResultRecord(runId, cell.getFuncNum(), cell.getMutationProbability(), arm,
+                        summary.getGeneration(), summary.getBest(), summary.getWorst(), summary.getMean()));
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        evolution.setPublisher(publisher);
+    }
+
+    @Override
+    public void runFinished(String group, int index, Evolution evolution) {
+        if (index >= genomeRuns) {
+            return;
+        }
+
+        long runId = runId(group, index);
+        for (int arm = ExperimentSummary.INITIAL; arm <= ExperimentSummary.WITHOUT_WEDDING; ++arm) {
+            int generation = arm == ExperimentSummary.INITIAL ? 0 : evolution.getGeneration(arm - 1);
+            Individual[] best = evolution.getPopulation(arm).getBestIndividuals(genomeIndividuals);
+
+            for (int rank = 0; rank < best.length; ++rank) {
+                sink.write(new GenomeRecord(runId, arm, generation, rank, best[rank].getObjFuncVal(), best[rank].getX(),
+                        best[rank].getSigma()));
+            }
+        }
+    }
+
+}
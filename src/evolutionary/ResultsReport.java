@@ -0,0 +1,174 @@
+package evolutionary;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Human-readable report produced from results written by {@link ResultsSink} and {@link ResultsRecorder}.
+ * Runs are grouped by cell of grid, run j of cell i has id i * runs + j. Sum up section describes the last generation
+ * of every run, detailed section shows dumped genomes of the first run of every cell.
+ * Records are folded as they are read, so memory depends on number of runs, not on number of generations.
+ */
+public class ResultsReport {
+    private static final String[] ARMS = new String[]{"Initial population", "Population with wedding",
+            "Population without wedding"};
+
+    private final List<ExperimentGrid.Cell> cells;
+    private final int runs;
+    // The last generation of every run and arm
+    private final Map<Long, ResultRecord[]> last = new HashMap<>();
+    // Genomes of the first run of every cell
+    private final Map<Long, List<GenomeRecord>> genomes = new HashMap<>();
+
+
+    /*----- Constructors -----*/
+
+    /**
+     * @param cells Cells of grid, see {@link ExperimentGrid#cells()}.
+     * @param runs  Number of runs of each cell.
+     */
+    public ResultsReport(List<ExperimentGrid.Cell> cells, int runs) {
+        this.cells = List.copyOf(cells);
+        this.runs = runs;
+    }
+
+
+    /*----- Methods -----*/
+
+    /**
+     * @param directory Directory written by {@link ColumnarResultsBackend}.
+     * @param cells     Cells of grid whose results are in directory.
+     * @param runs      Number of runs of each cell.
+     * @return Report of results and genomes in directory.
+     * @throws IOException When files cannot be read.
+     */
+    public static ResultsReport read(Path directory, List<ExperimentGrid.Cell> cells, int runs) throws IOException {
+        ResultsReport report = new ResultsReport(cells, runs);
+        ColumnarResultsBackend.readResults(directory.resolve(ColumnarResultsBackend.RESULTS_FILE), report::add);
+        ColumnarResultsBackend.readGenomes(directory.resolve(ColumnarResultsBackend.GENOMES_FILE), report::add);
+        return report;
+    }
+
+    /**
+     * Keeps result row when it is the latest generation of its run and arm seen so far.
+     *
+     * @param record Result row of a run.
+     */
+    public void add(ResultRecord record) {
+        ResultRecord[] arms = last.computeIfAbsent(record.getRunId(), id -> new ResultRecord[ARMS.length]);
+        if (arms[record.getArm()] == null || arms[record.getArm()].getGeneration() <= record.getGeneration()) {
+            arms[record.getArm()] = record;
+        }
+    }
+
+    /**
+     * Keeps genome when it belongs to the first run of its cell.
+     *
+     * @param genome Dumped genome.
+     */
+    public void add(GenomeRecord genome) {
+        if (genome.getRunId() % runs == 0) {
+            genomes.computeIfAbsent(genome.getRunId(), id -> new ArrayList<>()).add(genome);
+        }
+    }
+
+    /**
+     * Prints both sections of report.
+     *
+     * @param out Stream to print to.
+     */
+    public void write(PrintStream out) {
+        out.println("\n\n##### SUM UP SECTION #####");
+        for (int i = 0; i < cells.size(); ++i) {
+            ExperimentSummary summary = new ExperimentSummary();
+            boolean any = false;
+
+            for (long runId = (long) i * runs; runId < (long) (i + 1) * runs; ++runId) {
+                ResultRecord[] arms = last.get(runId);
+                if (arms == null) {
+                    continue;
+                }
+
+                any = true;
+                for (int arm = 0; arm < arms.length; ++arm) {
+                    if (arms[arm] != null) {
+                        summary.add(arm, arms[arm].getBest(), arms[arm].getWorst());
+                    }
+                }
+            }
+
+            if (any) {
+                showInfo(out, summary, cells.get(i).getName());
+            }
+        }
+
+        if (genomes.isEmpty()) {
+            return;
+        }
+
+        out.println("\n\n##### DETAILED SECTION #####");
+        out.println("Additional information about one of populations and their three best individuals:\n");
+
+        for (int i = 0; i < cells.size(); ++i) {
+            List<GenomeRecord> dumped = genomes.get((long) i * runs);
+            if (dumped == null) {
+                continue;
+            }
+            out.println("# " + cells.get(i).getName() + "\n");
+
+            for (int arm = 0; arm < ARMS.length; ++arm) {
+                int currentArm = arm;
+                List<GenomeRecord> best = dumped.stream()
+                        .filter(g -> g.getArm() == currentArm)
+                        .sorted(Comparator.comparingInt(GenomeRecord::getRank))
+                        .toList();
+
+                out.println("TOP " + best.size() + " Individuals - " + ARMS[arm]);
+                out.println("--------------------------------------------------");
+                for (GenomeRecord genome : best) {
+                    out.println("Best individual " + (genome.getRank() + 1) + ":");
+                    out.println("X      " + Arrays.toString(genome.getX()));
+                    out.println("Sigma  " + Arrays.toString(genome.getSigma()));
+                    out.println("Objective function value = " + genome.getObjFuncVal());
+                    out.println();
+                }
+                if (arm < ARMS.length - 1) {
+                    out.println();
+                }
+            }
+        }
+    }
+
+    /**
+     * Shows statistics of group of runs.
+     */
+    private static void showInfo(PrintStream out, ExperimentSummary summary, String group) {
+        double[] info = summary.getInfo();
+
+        out.println("\n" + group);
+        out.println("-------------------------");
+        out.println("Mean of the objective function values of the best individual of every population:");
+        out.println("- Initial population = " + info[0]);
+        out.println("- Population with wedding = " + info[1]);
+        out.println("- Population without wedding = " + info[2]);
+        out.println("\nBest and worst individuals of all populations:");
+        out.println("- Best / Worst individual from initial populations = " + info[3] + " / " + info[4]);
+        out.println("- Best / Worst individual from populations with wedding  = " + info[5] + " / " + info[6]);
+        out.println("- Best / Worst individual from populations without wedding  = " + info[7] + " / " + info[8]);
+        out.println("\nDistribution of the objective function values of the best individual of every population"
+                + " (standard deviation, quartiles and 90th percentile):");
+        for (int arm = 0; arm < ARMS.length; ++arm) {
+            RunningStatistics best = summary.getBest(arm);
+            out.println("- " + ARMS[arm] + " = " + best.getStandardDeviation() + ", " + best.getQuantile(0.25)
+                    + " / " + best.getMedian() + " / " + best.getQuantile(0.75) + ", " + best.getQuantile(0.9));
+        }
+    }
+
+}
@@ -0,0 +1,195 @@
+package evolutionary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Collects results from many threads and writes them to backends on its own thread.
+ * Records wait in a bounded queue, the writer takes as many of them as are waiting (up to batch size) and hands them to
+ * every backend as one batch, backends are flushed whenever the queue is empty. A producer blocks only when the
+ * writer falls behind by the whole queue.
+ * A failure of a backend is thrown by the next write or by {@link #close()}.
+ */
+public class ResultsSink implements Closeable {
+    private static final int DEFAULT_BATCH_SIZE = 4096;
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final Object END = new Object();
+
+    private final ResultsBackend[] backends;
+    private final LinkedBlockingQueue<Object> queue;
+    private final int batchSize;
+    private final Thread writer;
+    private volatile IOException failure;
+    private volatile boolean closed = false;
+
+
+    /*----- Constructors -----*/
+
+    /**
+     * @param backends Backends receiving every record.
+     */
+    public ResultsSink(ResultsBackend... backends) {
+        this(DEFAULT_BATCH_SIZE, DEFAULT_CAPACITY, backends);
+    }
+
+    /**
+     * @param batchSize Maximum number of records passed to backends at once.
+     * @param capacity  Maximum number of records waiting for writer.
+     * @param backends  Backends receiving every record.
+     */
+    public ResultsSink(int batchSize, int capacity, ResultsBackend... backends) {
+        if (batchSize < 1 || capacity < 1) {
+            throw new IllegalArgumentException("Batch size and capacity must be positive");
+        }
+
+        this.backends = backends.clone();
+        this.batchSize = batchSize;
+        this.queue = new LinkedBlockingQueue<>(capacity);
+
+        writer = new Thread(this::write, "results-sink");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+
+    /*----- Methods -----*/
+
+    /**
+     * @param record Result row, may be called from any thread.
+     */
+    public void write(ResultRecord record) {
+        enqueue(record);
+    }
+
+    /**
+     * @param record Genome to dump, may be called from any thread.
+     */
+    public void write(GenomeRecord record) {
+        enqueue(record);
+    }
+
+    /**
+     * Writes all queued records, closes backends and waits for writer thread.
+     *
+     * @throws IOException When any backend failed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            put(END);
+
+            boolean interrupted = false;
+            while (writer.isAlive()) {
+                try {
+                    writer.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+
+            for (ResultsBackend backend : backends) {
+                try {
+                    backend.close();
+                } catch (IOException e) {
+                    fail(e);
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void enqueue(Object record) {
+        if (closed) {
+            throw new IllegalStateException("Results sink is closed");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+        put(record);
+    }
+
+    private void put(Object record) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(record);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write() {
+        ArrayList<Object> batch = new ArrayList<>(batchSize);
+        ArrayList<ResultRecord> results = new ArrayList<>(batchSize);
+        ArrayList<GenomeRecord> genomes = new ArrayList<>();
+        boolean end = false;
+
+        while (!end) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                // Only close ends the writer, everything queued must be written
+                continue;
+            }
+            queue.drainTo(batch, batchSize - 1);
+
+            for (Object record : batch) {
+                if (record == END) {
+                    end = true;
+                } else if (record instanceof ResultRecord) {
+                    results.add((ResultRecord) record);
+                } else {
+                    genomes.add((GenomeRecord) record);
+                }
+            }
+
+            if (failure == null) {
+                try {
+                    for (ResultsBackend backend : backends) {
+                        if (!results.isEmpty()) {
+                            backend.writeResults(results);
+                        }
+                        if (!genomes.isEmpty()) {
+                            backend.writeGenomes(genomes);
+                        }
+                        if (queue.isEmpty()) {
+                            backend.flush();
+                        }
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // Records after failure are dropped, so that producers never wait for a broken writer
+                    fail(e instanceof IOException ? (IOException) e : new IOException(e));
+                }
+            }
+
+            batch.clear();
+            results.clear();
+            genomes.clear();
+        }
+    }
+
+    private synchronized void fail(IOException e) {
+        if (failure == null) {
+            failure = e;
+        } else {
+            failure.addSuppressed(e);
+        }
+    }
+
+}
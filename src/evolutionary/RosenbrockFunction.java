@@ -0,0 +1,45 @@
+package evolutionary;
+
+/**
+ * Rosenbrock's Function (CEC 2014 F4, without rotations and shifting).
+ */
+public final class RosenbrockFunction implements SeparableFunction {
+
+    @Override
+    public double evaluate(double[] x, int offset, int dim) {
+        double func = 0;
+
+        for (int i = offset; i < offset + dim - 1; ++i) {
+            double t = x[i] * x[i] - x[i + 1];
+            double u = x[i] - 1;
+            func += 100 * (t * t) + u * u;
+        }
+
+        return func;
+    }
+
+    /**
+     * Term i couples gene i with gene i + 1, the last term is 0.
+     */
+    @Override
+    public double term(double[] x, int offset, int dim, int i) {
+        if (i == dim - 1) {
+            return 0;
+        }
+
+        double t = x[offset + i] * x[offset + i] - x[offset + i + 1];
+        double u = x[offset + i] - 1;
+        return 100 * (t * t) + u * u;
+    }
+
+    @Override
+    public int getCoupling() {
+        return 1;
+    }
+
+    @Override
+    public void evaluateBatch(double[] x, int dim, int[] rows, int from, int to, double[] values) {
+        EvaluationKernels.get().rosenbrock(x, dim, rows, from, to, values);
+    }
+
+}
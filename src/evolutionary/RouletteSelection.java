@@ -0,0 +1,59 @@
+package evolutionary;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Roulette wheel selection, the default strategy. Every individual occupies part of the wheel proportional to
+ * 1 / objective function value, count sorted random numbers choose parents. O(n + lambda log lambda).
+ *
+ * @author sitekwb
+ */
+public final class RouletteSelection implements SelectionStrategy {
+    private double[] wheel = new double[0];
+    private double[] randoms = new double[0];
+
+    @Override
+    public int select(double[] objFuncVal, int size, int count, RandomGenerator rand, int[] parents) {
+        if (wheel.length < size) {
+            wheel = new double[size];
+        }
+        if (randoms.length < count) {
+            randoms = new double[count];
+        }
+
+        //count cumulative sums of function values, we minimize objective function,
+        //so the bigger objective function is, the smaller part of roulette wheel it occupies
+        double functionValueSum = 0;
+        for (int i = 0; i < size; ++i) {
+            functionValueSum += 1.0 / objFuncVal[i];
+            wheel[i] = functionValueSum;
+        }
+
+        //generate count random numbers from 0 to functionValueSum
+        for (int i = 0; i < count; ++i) {
+            randoms[i] = rand.nextDouble() * functionValueSum;
+        }
+
+        Arrays.sort(randoms, 0, count);
+
+        //until random will not exceed wheelPointer, individual is chosen
+        int randomsIndex = 0;
+        for (int i = 0; i < size && randomsIndex < count; ++i) {
+            while (randoms[randomsIndex] <= wheel[i]) {
+                parents[randomsIndex] = i;
+                if (++randomsIndex >= count) {
+                    break;
+                }
+            }
+        }
+
+        return randomsIndex;
+    }
+
+    @Override
+    public SelectionStrategy copy() {
+        return new RouletteSelection();
+    }
+
+}
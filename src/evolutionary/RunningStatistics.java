@@ -0,0 +1,145 @@
+package evolutionary;
+
+/**
+ * Statistics of a stream of values counted in one pass: count, mean and variance by Welford's method, minimum,
+ * maximum and quantiles by {@link QuantileSketch}.
+ * Not thread-safe, see {@link StripedStatistics} for feeding from many threads.
+ */
+public class RunningStatistics {
+    private long count = 0;
+    private double mean = 0;
+    private double m2 = 0;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private final QuantileSketch sketch;
+
+
+    /*----- Constructors -----*/
+
+    /**
+     * Statistics with quantiles of relative accuracy 1%.
+     */
+    public RunningStatistics() {
+        this(QuantileSketch.DEFAULT_ACCURACY);
+    }
+
+    /**
+     * @param accuracy Relative accuracy of quantiles.
+     */
+    public RunningStatistics(double accuracy) {
+        sketch = new QuantileSketch(accuracy);
+    }
+
+
+    /*----- Getters & setters -----*/
+
+    /**
+     * @return Number of added values.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return Mean of added values, 0 when there are none.
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * @return Sample variance of added values, 0 when there are fewer than two.
+     */
+    public double getVariance() {
+        return count > 1 ? m2 / (count - 1) : 0;
+    }
+
+    /**
+     * @return Sample standard deviation of added values.
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * @return The smallest added value, positive infinity when there are none.
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * @return The largest added value, negative infinity when there are none.
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @return Estimate of median.
+     */
+    public double getMedian() {
+        return getQuantile(0.5);
+    }
+
+    /**
+     * @param q Quantile between 0 and 1.
+     * @return Estimate of quantile, within minimum and maximum, NaN when there are no values.
+     */
+    public double getQuantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        return Math.max(min, Math.min(max, sketch.quantile(q)));
+    }
+
+
+    /*----- Methods -----*/
+
+    /**
+     * @param value Value to add, NaN is ignored.
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+
+        ++count;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sketch.add(value);
+    }
+
+    /**
+     * Adds all values of another statistics, mean and variance are combined by formula of Chan et al.
+     *
+     * @param other Statistics to merge, not changed.
+     */
+    public void merge(RunningStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sketch.merge(other.sketch);
+    }
+
+    /**
+     * @return Independent copy of statistics.
+     */
+    public RunningStatistics copy() {
+        RunningStatistics copy = new RunningStatistics(sketch.getAccuracy());
+        copy.merge(this);
+        return copy;
+    }
+
+}
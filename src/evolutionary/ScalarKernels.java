@@ -0,0 +1,103 @@
+package evolutionary;
+
+import static java.lang.Math.*;
+
+/**
+ * Scalar kernels, give the same values as {@link ObjectiveFunction#evaluate(double[], int, int)} of each function.
+ */
+final class ScalarKernels implements EvaluationKernels {
+
+    @Override
+    public void weightedSumOfSquares(double[] x, int dim, int[] rows, int from, int to, double[] weights, double[] values) {
+        for (int r = from; r < to; ++r) {
+            int offset = rows[r] * dim;
+            double sum = 0;
+
+            for (int i = 0; i < dim; ++i) {
+                double x_i = x[offset + i];
+                sum += weights[i] * (x_i * x_i);
+            }
+
+            values[rows[r]] = sum;
+        }
+    }
+
+    @Override
+    public void headTailSquares(double[] x, int dim, int[] rows, int from, int to, double headWeight, double tailWeight, double[] values) {
+        for (int r = from; r < to; ++r) {
+            int offset = rows[r] * dim;
+            double sum = 0;
+
+            for (int i = offset + 1; i < offset + dim; ++i) {
+                sum += x[i] * x[i];
+            }
+
+            values[rows[r]] = tailWeight * sum + headWeight * (x[offset] * x[offset]);
+        }
+    }
+
+    @Override
+    public void rastrigin(double[] x, int dim, int[] rows, int from, int to, double[] values) {
+        for (int r = from; r < to; ++r) {
+            int offset = rows[r] * dim;
+            double sum = 0;
+
+            for (int i = offset; i < offset + dim; ++i) {
+                double x_i = x[i];
+                sum += x_i * x_i - 10 * cos(2 * PI * x_i) + 10;
+            }
+
+            values[rows[r]] = sum;
+        }
+    }
+
+    @Override
+    public void rosenbrock(double[] x, int dim, int[] rows, int from, int to, double[] values) {
+        for (int r = from; r < to; ++r) {
+            int offset = rows[r] * dim;
+            double sum = 0;
+
+            for (int i = offset; i < offset + dim - 1; ++i) {
+                double t = x[i] * x[i] - x[i + 1];
+                double u = x[i] - 1;
+                sum += 100 * (t * t) + u * u;
+            }
+
+            values[rows[r]] = sum;
+        }
+    }
+
+    @Override
+    public void hgbat(double[] x, int dim, int[] rows, int from, int to, double[] values) {
+        for (int r = from; r < to; ++r) {
+            int offset = rows[r] * dim;
+            double sum1 = 0;
+            double sum2 = 0;
+
+            for (int i = offset; i < offset + dim; ++i) {
+                sum1 += x[i];
+                sum2 += x[i] * x[i];
+            }
+
+            values[rows[r]] = sqrt(abs(sum2 * sum2 - sum1 * sum1)) + ((0.5 * sum2 + sum1) / dim + 0.5);
+        }
+    }
+
+    @Override
+    public void griewank(double[] x, int dim, int[] rows, int from, int to, double[] sqrtIndex, double[] values) {
+        for (int r = from; r < to; ++r) {
+            int offset = rows[r] * dim;
+            double sum = 0;
+            double mul = 1;
+
+            for (int i = 0; i < dim; ++i) {
+                double x_i = x[offset + i];
+                sum += x_i * x_i;
+                mul *= cos(x_i / sqrtIndex[i]);
+            }
+
+            values[rows[r]] = sum - mul + 1;
+        }
+    }
+
+}
@@ -0,0 +1,43 @@
+package evolutionary;
+
+import static java.lang.Math.*;
+
+/**
+ * Modified Schwefel's Function (CEC 2014 F9, without rotations and shifting).
+ */
+public final class SchwefelFunction implements SeparableFunction {
+
+    @Override
+    public double evaluate(double[] x, int offset, int dim) {
+        double sum = 0;
+
+        for (int i = offset; i < offset + dim; ++i) {
+            sum += g(x[i], dim);
+        }
+
+        return 418.9829 * dim - sum;
+    }
+
+    @Override
+    public double term(double[] x, int offset, int dim, int i) {
+        return 418.9829 - g(x[offset + i], dim);
+    }
+
+    /**
+     * @param x_i Gene.
+     * @param dim Dimension of individual.
+     * @return Value of g(z_i) for one gene.
+     */
+    static double g(double x_i, int dim) {
+        double z_i = x_i + 4.209687462275036e+002;
+
+        if (abs(z_i) <= 500) {
+            return z_i * sin(sqrt(abs(z_i)));
+        } else if (z_i > 500) {
+            return (500 - (z_i % 500)) * sin(sqrt(abs(500 - (z_i % 500)))) - (z_i - 500) * (z_i - 500) / (10000 * dim);
+        } else {
+            return (abs(z_i) % 500 - 500) * sin(sqrt(abs(abs(z_i) % 500 - 500))) - (z_i + 500) * (z_i + 500) / (10000 * dim);
+        }
+    }
+
+}
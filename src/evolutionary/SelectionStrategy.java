@@ -0,0 +1,27 @@
+package evolutionary;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Chooses parents of children population.
+ * Implementations keep their own buffers between generations, so one instance must not be shared by populations
+ * working concurrently, use {@link #copy()} instead.
+ */
+public interface SelectionStrategy {
+
+    /**
+     * @param objFuncVal Objective function values of parents, indexed by row (minimized).
+     * @param size       Number of parents.
+     * @param count      Number of children.
+     * @param rand       Random number generator.
+     * @param parents    Row of parent of k-th child is written to parents[k], array holds at least count elements.
+     * @return Number of chosen parents, at most count.
+     */
+    int select(double[] objFuncVal, int size, int count, RandomGenerator rand, int[] parents);
+
+    /**
+     * @return New strategy with the same parameters and its own buffers.
+     */
+    SelectionStrategy copy();
+
+}
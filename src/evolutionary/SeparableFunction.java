@@ -0,0 +1,51 @@
+package evolutionary;
+
+/**
+ * Objective function which is a sum of per gene terms, term i depends on genes i to i + coupling only.
+ * After a change of k genes its value can be updated in O(k) from the old value, see
+ * {@link Population#setSparseMutation(int, int)}.
+ */
+public interface SeparableFunction extends ObjectiveFunction {
+
+    /**
+     * @param x      Flat array of genes.
+     * @param offset Index of the first gene of individual.
+     * @param dim    Dimension of individual.
+     * @param i      Number of term, from 0 to dim - 1.
+     * @return Term i of objective function value of the individual.
+     */
+    double term(double[] x, int offset, int dim, int i);
+
+    /**
+     * @return Number of following genes each term depends on, 0 for fully separable functions.
+     */
+    default int getCoupling() {
+        return 0;
+    }
+
+    /**
+     * Sums terms depending on any of given genes, each term counted once.
+     *
+     * @param x      Flat array of genes.
+     * @param offset Index of the first gene of individual.
+     * @param dim    Dimension of individual.
+     * @param genes  Changed genes, ascending.
+     * @param count  Number of used elements of genes array.
+     * @return Sum of terms affected by change of genes.
+     */
+    default double sumOfTerms(double[] x, int offset, int dim, int[] genes, int count) {
+        int coupling = getCoupling();
+        double sum = 0;
+        int next = 0;
+
+        for (int g = 0; g < count; ++g) {
+            for (int i = Math.max(next, genes[g] - coupling); i <= genes[g]; ++i) {
+                sum += term(x, offset, dim, i);
+            }
+            next = genes[g] + 1;
+        }
+
+        return sum;
+    }
+
+}
@@ -0,0 +1,28 @@
+package evolutionary;
+
+/**
+ * Stops population when the best objective function value has not improved for given number of generations.
+ */
+public final class StagnationCriterion implements TerminationCriterion {
+    private final int generations;
+
+    /**
+     * @param generations Number of generations without improvement, K.
+     */
+    public StagnationCriterion(int generations) {
+        if (generations < 1) {
+            throw new IllegalArgumentException("Number of generations must be positive");
+        }
+        this.generations = generations;
+    }
+
+    @Override
+    public boolean isMet(EvolutionProgress progress) {
+        return progress.getGenerationsWithoutImprovement() >= generations;
+    }
+
+    @Override
+    public String toString() {
+        return "no improvement in " + generations + " generations";
+    }
+}
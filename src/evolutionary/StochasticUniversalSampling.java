@@ -0,0 +1,39 @@
+package evolutionary;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Stochastic universal sampling. Wheel is the same as in {@link RouletteSelection}, but parents are chosen by count
+ * equally spaced pointers with one random start, so no sorting is needed. O(n + lambda), allocation-free.
+ */
+public final class StochasticUniversalSampling implements SelectionStrategy {
+
+    @Override
+    public int select(double[] objFuncVal, int size, int count, RandomGenerator rand, int[] parents) {
+        double functionValueSum = 0;
+        for (int i = 0; i < size; ++i) {
+            functionValueSum += 1.0 / objFuncVal[i];
+        }
+
+        double step = functionValueSum / count;
+        double pointer = rand.nextDouble() * step;
+        double wheelPointer = 0;
+        int chosen = 0;
+
+        for (int i = 0; i < size && chosen < count; ++i) {
+            wheelPointer += 1.0 / objFuncVal[i];
+            while (chosen < count && pointer <= wheelPointer) {
+                parents[chosen++] = i;
+                pointer += step;
+            }
+        }
+
+        return chosen;
+    }
+
+    @Override
+    public SelectionStrategy copy() {
+        return new StochasticUniversalSampling();
+    }
+
+}
@@ -0,0 +1,71 @@
+package evolutionary;
+
+/**
+ * Thread-safe {@link RunningStatistics} fed from many threads at once.
+ * Values go to one of several stripes chosen by thread, each with its own lock, so concurrent threads rarely meet on
+ * one lock. Stripes are merged only when statistics are read.
+ */
+public class StripedStatistics {
+    private final RunningStatistics[] stripes;
+    private final int shift;
+    private final double accuracy;
+
+
+    /*----- Constructors -----*/
+
+    /**
+     * Statistics with stripes for all available processors and quantiles of relative accuracy 1%.
+     */
+    public StripedStatistics() {
+        this(Runtime.getRuntime().availableProcessors(), QuantileSketch.DEFAULT_ACCURACY);
+    }
+
+    /**
+     * @param parallelism Expected number of threads adding values at once.
+     * @param accuracy    Relative accuracy of quantiles.
+     */
+    public StripedStatistics(int parallelism, double accuracy) {
+        // Power of two of at least twice the parallelism, so that two threads rarely pick the same stripe
+        int count = Integer.highestOneBit(Math.max(1, 2 * parallelism - 1)) << 1;
+
+        this.shift = 64 - Integer.numberOfTrailingZeros(count);
+        this.accuracy = accuracy;
+        this.stripes = new RunningStatistics[count];
+        for (int i = 0; i < count; ++i) {
+            stripes[i] = new RunningStatistics(accuracy);
+        }
+    }
+
+
+    /*----- Methods -----*/
+
+    /**
+     * @param value Value to add, NaN is ignored.
+     */
+    public void add(double value) {
+        RunningStatistics stripe = stripes[stripe()];
+        synchronized (stripe) {
+            stripe.add(value);
+        }
+    }
+
+    /**
+     * @return Statistics of all values added so far, merged from all stripes.
+     */
+    public RunningStatistics snapshot() {
+        RunningStatistics merged = new RunningStatistics(accuracy);
+        for (RunningStatistics stripe : stripes) {
+            synchronized (stripe) {
+                merged.merge(stripe);
+            }
+        }
+        return merged;
+    }
+
+    private int stripe() {
+        long id = Thread.currentThread().getId();
+        // Fibonacci hashing spreads consecutive thread ids over stripes
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+}
@@ -0,0 +1,26 @@
+package evolutionary;
+
+/**
+ * How the best mi individuals of combined parent and children populations are chosen in
+ * {@link Population#limitPopulation(Population)}.
+ */
+public enum SurvivorSelection {
+    /**
+     * Stable sort of all mi + lambda individuals, O(n log n). Default, keeps the same survivors in the same order as
+     * the original implementation.
+     */
+    FULL_SORT,
+
+    /**
+     * Quickselect of the best mi individuals, then sort of the kept part only, O(n + mi log mi).
+     * Population is ordered best-first, but quickselect is not stable: among individuals with equal objective function
+     * values others may survive, or in another order, than with full sort, so runs are not comparable with it.
+     */
+    PARTIAL_SORT,
+
+    /**
+     * Quickselect of the best mi individuals without any sort, O(n), with the same caveat about ties.
+     * Best and worst individuals are then found by scanning the population.
+     */
+    UNORDERED
+}
@@ -0,0 +1,31 @@
+package evolutionary;
+
+/**
+ * Stops population when its best objective function value is within given absolute error of the optimum value.
+ */
+public final class TargetErrorCriterion implements TerminationCriterion {
+    private final double optimumValue;
+    private final double error;
+
+    /**
+     * @param optimumValue Objective function value of global optimum, e.g. 0 for basic functions.
+     * @param error        Absolute error accepted as hitting the optimum.
+     */
+    public TargetErrorCriterion(double optimumValue, double error) {
+        if (error < 0) {
+            throw new IllegalArgumentException("Error must not be negative");
+        }
+        this.optimumValue = optimumValue;
+        this.error = error;
+    }
+
+    @Override
+    public boolean isMet(EvolutionProgress progress) {
+        return progress.getBestSoFar() - optimumValue <= error;
+    }
+
+    @Override
+    public String toString() {
+        return "error below " + error;
+    }
+}
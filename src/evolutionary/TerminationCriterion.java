@@ -0,0 +1,16 @@
+package evolutionary;
+
+/**
+ * Decides when a population of evolution stops before its last generation.
+ * Checked after each generation of each population, populations stop independently. Criteria keep no state of their
+ * own (see {@link EvolutionProgress}), so one instance serves both populations, also when they evolve concurrently.
+ */
+public interface TerminationCriterion {
+
+    /**
+     * @param progress Progress of population after its latest generation.
+     * @return True when population should stop.
+     */
+    boolean isMet(EvolutionProgress progress);
+
+}
@@ -0,0 +1,45 @@
+package evolutionary;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Tournament selection. Each parent is the best of tournamentSize individuals drawn with replacement.
+ * O(tournamentSize * lambda), allocation-free and independent of the scale and sign of objective function.
+ */
+public final class TournamentSelection implements SelectionStrategy {
+    private final int tournamentSize;
+
+    /**
+     * @param tournamentSize Number of individuals competing for each child.
+     */
+    public TournamentSelection(int tournamentSize) {
+        if (tournamentSize < 1) {
+            throw new IllegalArgumentException("Tournament size must be positive");
+        }
+        this.tournamentSize = tournamentSize;
+    }
+
+    @Override
+    public int select(double[] objFuncVal, int size, int count, RandomGenerator rand, int[] parents) {
+        for (int k = 0; k < count; ++k) {
+            int best = rand.nextInt(size);
+
+            for (int t = 1; t < tournamentSize; ++t) {
+                int competitor = rand.nextInt(size);
+                if (objFuncVal[competitor] < objFuncVal[best]) {
+                    best = competitor;
+                }
+            }
+
+            parents[k] = best;
+        }
+
+        return count;
+    }
+
+    @Override
+    public SelectionStrategy copy() {
+        return new TournamentSelection(tournamentSize);
+    }
+
+}
@@ -0,0 +1,173 @@
+package evolutionary;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import static java.lang.Math.*;
+
+/**
+ * Kernels using the preferred vector species of the CPU (4 lanes on AVX2, 8 lanes on AVX-512).
+ * Genes of one row are processed in lanes, the tail shorter than a vector is processed by scalar code.
+ * Loaded by reflection only, so the class is never touched when jdk.incubator.vector is missing.
+ */
+final class VectorKernels implements EvaluationKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    @Override
+    public void weightedSumOfSquares(double[] x, int dim, int[] rows, int from, int to, double[] weights, double[] values) {
+        int bound = SPECIES.loopBound(dim);
+
+        for (int r = from; r < to; ++r) {
+            int offset = rows[r] * dim;
+            DoubleVector acc = DoubleVector.zero(SPECIES);
+            int i = 0;
+
+            for (; i < bound; i += LANES) {
+                DoubleVector v = DoubleVector.fromArray(SPECIES, x, offset + i);
+                acc = v.mul(v).fma(DoubleVector.fromArray(SPECIES, weights, i), acc);
+            }
+
+            double sum = acc.reduceLanes(VectorOperators.ADD);
+            for (; i < dim; ++i) {
+                double x_i = x[offset + i];
+                sum += weights[i] * (x_i * x_i);
+            }
+
+            values[rows[r]] = sum;
+        }
+    }
+
+    @Override
+    public void headTailSquares(double[] x, int dim, int[] rows, int from, int to, double headWeight, double tailWeight, double[] values) {
+        int bound = SPECIES.loopBound(dim - 1);
+
+        for (int r = from; r < to; ++r) {
+            int offset = rows[r] * dim;
+            DoubleVector acc = DoubleVector.zero(SPECIES);
+            int i = 1;
+
+            for (; i <= bound; i += LANES) {
+                DoubleVector v = DoubleVector.fromArray(SPECIES, x, offset + i);
+                acc = v.fma(v, acc);
+            }
+
+            double sum = acc.reduceLanes(VectorOperators.ADD);
+            for (; i < dim; ++i) {
+                sum += x[offset + i] * x[offset + i];
+            }
+
+            values[rows[r]] = tailWeight * sum + headWeight * (x[offset] * x[offset]);
+        }
+    }
+
+    @Override
+    public void rastrigin(double[] x, int dim, int[] rows, int from, int to, double[] values) {
+        int bound = SPECIES.loopBound(dim);
+
+        for (int r = from; r < to; ++r) {
+            int offset = rows[r] * dim;
+            DoubleVector acc = DoubleVector.zero(SPECIES);
+            int i = 0;
+
+            for (; i < bound; i += LANES) {
+                DoubleVector v = DoubleVector.fromArray(SPECIES, x, offset + i);
+                DoubleVector cos = v.mul(2 * PI).lanewise(VectorOperators.COS);
+                acc = acc.add(v.mul(v).sub(cos.mul(10)).add(10));
+            }
+
+            double sum = acc.reduceLanes(VectorOperators.ADD);
+            for (; i < dim; ++i) {
+                double x_i = x[offset + i];
+                sum += x_i * x_i - 10 * cos(2 * PI * x_i) + 10;
+            }
+
+            values[rows[r]] = sum;
+        }
+    }
+
+    @Override
+    public void rosenbrock(double[] x, int dim, int[] rows, int from, int to, double[] values) {
+        int bound = SPECIES.loopBound(dim - 1);
+
+        for (int r = from; r < to; ++r) {
+            int offset = rows[r] * dim;
+            DoubleVector acc = DoubleVector.zero(SPECIES);
+            int i = 0;
+
+            for (; i < bound; i += LANES) {
+                DoubleVector v = DoubleVector.fromArray(SPECIES, x, offset + i);
+                DoubleVector next = DoubleVector.fromArray(SPECIES, x, offset + i + 1);
+                DoubleVector t = v.mul(v).sub(next);
+                DoubleVector u = v.sub(1);
+                acc = acc.add(t.mul(t).mul(100).add(u.mul(u)));
+            }
+
+            double sum = acc.reduceLanes(VectorOperators.ADD);
+            for (; i < dim - 1; ++i) {
+                double t = x[offset + i] * x[offset + i] - x[offset + i + 1];
+                double u = x[offset + i] - 1;
+                sum += 100 * (t * t) + u * u;
+            }
+
+            values[rows[r]] = sum;
+        }
+    }
+
+    @Override
+    public void hgbat(double[] x, int dim, int[] rows, int from, int to, double[] values) {
+        int bound = SPECIES.loopBound(dim);
+
+        for (int r = from; r < to; ++r) {
+            int offset = rows[r] * dim;
+            DoubleVector acc1 = DoubleVector.zero(SPECIES);
+            DoubleVector acc2 = DoubleVector.zero(SPECIES);
+            int i = 0;
+
+            for (; i < bound; i += LANES) {
+                DoubleVector v = DoubleVector.fromArray(SPECIES, x, offset + i);
+                acc1 = acc1.add(v);
+                acc2 = v.fma(v, acc2);
+            }
+
+            double sum1 = acc1.reduceLanes(VectorOperators.ADD);
+            double sum2 = acc2.reduceLanes(VectorOperators.ADD);
+            for (; i < dim; ++i) {
+                sum1 += x[offset + i];
+                sum2 += x[offset + i] * x[offset + i];
+            }
+
+            values[rows[r]] = sqrt(abs(sum2 * sum2 - sum1 * sum1)) + ((0.5 * sum2 + sum1) / dim + 0.5);
+        }
+    }
+
+    @Override
+    public void griewank(double[] x, int dim, int[] rows, int from, int to, double[] sqrtIndex, double[] values) {
+        int bound = SPECIES.loopBound(dim);
+
+        for (int r = from; r < to; ++r) {
+            int offset = rows[r] * dim;
+            DoubleVector sumAcc = DoubleVector.zero(SPECIES);
+            DoubleVector mulAcc = DoubleVector.broadcast(SPECIES, 1);
+            int i = 0;
+
+            for (; i < bound; i += LANES) {
+                DoubleVector v = DoubleVector.fromArray(SPECIES, x, offset + i);
+                sumAcc = v.fma(v, sumAcc);
+                mulAcc = mulAcc.mul(v.div(DoubleVector.fromArray(SPECIES, sqrtIndex, i)).lanewise(VectorOperators.COS));
+            }
+
+            double sum = sumAcc.reduceLanes(VectorOperators.ADD);
+            double mul = mulAcc.reduceLanes(VectorOperators.MUL);
+            for (; i < dim; ++i) {
+                double x_i = x[offset + i];
+                sum += x_i * x_i;
+                mul *= cos(x_i / sqrtIndex[i]);
+            }
+
+            values[rows[r]] = sum - mul + 1;
+        }
+    }
+
+}
@@ -0,0 +1,147 @@
+package evolutionary;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.random.RandomGenerator;
+
+/**
+ * Pairs individuals of population for wedding.
+ * Keeps a permutation of rows which is shuffled in place every generation, so the buffer is reused and no list is touched.
+ * Individuals 2k and 2k + 1 of the permutation get married and their objective function values are set to the mean of
+ * their raw values. Every row is written in the same pass, so marital state of previous generations never carries over
+ * and the cost of wedding does not depend on how many generations have run.
+ */
+public class WeddingEngine {
+    private static final int CHUNK = 4096;
+
+    private int[] permutation = new int[0];
+    private int parallelThreshold = 1 << 16;
+
+
+    /*----- Getters & setters -----*/
+
+    /**
+     * @return Minimum size of population for which pairs are averaged in parallel.
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * @param parallelThreshold Minimum size of population for which pairs are averaged in parallel.
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+
+    /**
+     * @return Permutation shuffled by the last wedding, its order is the start of the next shuffle.
+     */
+    int[] getPermutation() {
+        return permutation;
+    }
+
+    /**
+     * @param permutation Permutation restored from checkpoint, so the next shuffle continues the same sequence.
+     */
+    void setPermutation(int[] permutation) {
+        this.permutation = permutation.clone();
+    }
+
+
+    /*----- Methods -----*/
+
+    /**
+     * Shuffles permutation of rows and marries consecutive pairs. With odd size the last individual stays single.
+     *
+     * @param store Rows of population.
+     * @param rand  Random number generator, used only on the calling thread.
+     * @param pool  Pool averaging pairs of big populations, may be null.
+     */
+    public void perform(PopulationStore store, RandomGenerator rand, ForkJoinPool pool) {
+        int size = store.getSize();
+
+        if (permutation.length != size) {
+            permutation = new int[size];
+            for (int i = 0; i < size; ++i) {
+                permutation[i] = i;
+            }
+        }
+
+        // Fisher-Yates shuffle, shuffled permutation of the previous generation is as good a start as identity
+        for (int i = size - 1; i > 0; --i) {
+            int j = rand.nextInt(i + 1);
+            int tmp = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = tmp;
+        }
+
+        int pairs = size / 2;
+        if (pool != null && size >= parallelThreshold) {
+            pool.invoke(new MarryTask(store, permutation, 0, pairs));
+        } else {
+            marry(store, permutation, 0, pairs);
+        }
+
+        if (size % 2 == 1) {
+            int single = permutation[size - 1];
+            store.setObjFuncVal(single, store.getRawObjFuncVal(single));
+            store.setMarried(single, false);
+        }
+    }
+
+    /**
+     * @return New engine with the same parameters and its own buffer.
+     */
+    public WeddingEngine copy() {
+        WeddingEngine copy = new WeddingEngine();
+        copy.setParallelThreshold(parallelThreshold);
+        return copy;
+    }
+
+    private static void marry(PopulationStore store, int[] permutation, int fromPair, int toPair) {
+        double[] raw = store.getRawObjFuncVal();
+
+        for (int k = fromPair; k < toPair; ++k) {
+            int first = permutation[2 * k];
+            int second = permutation[2 * k + 1];
+            double val = (raw[first] + raw[second]) / 2;
+
+            store.setObjFuncVal(first, val);
+            store.setObjFuncVal(second, val);
+            store.setMarried(first, true);
+            store.setMarried(second, true);
+        }
+    }
+
+    /**
+     * Marries a range of pairs, splitting it between workers of fork-join pool.
+     */
+    @SuppressWarnings("serial")
+    private static class MarryTask extends RecursiveAction {
+        private final PopulationStore store;
+        private final int[] permutation;
+        private final int from;
+        private final int to;
+
+        MarryTask(PopulationStore store, int[] permutation, int from, int to) {
+            this.store = store;
+            this.permutation = permutation;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK) {
+                marry(store, permutation, from, to);
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(new MarryTask(store, permutation, from, mid), new MarryTask(store, permutation, mid, to));
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package evolutionary;
+
+import static java.lang.Math.*;
+
+/**
+ * Weierstrass Function (CEC 2014 F6, without rotations and shifting).
+ * Powers of a and b and the constant part of the function are counted once.
+ */
+public final class WeierstrassFunction implements ObjectiveFunction {
+    private static final double A = 0.5;
+    private static final double B = 3;
+    private static final int K_MAX = 20;
+
+    private final double[] aPow = new double[K_MAX + 1];
+    private final double[] bPow = new double[K_MAX + 1];
+    private final double constant;
+
+    public WeierstrassFunction() {
+        double sum = 0;
+
+        for (int k = 0; k <= K_MAX; ++k) {
+            aPow[k] = pow(A, k);
+            bPow[k] = 2 * PI * pow(B, k);
+            sum += aPow[k] * cos(bPow[k] * 0.5);
+        }
+
+        constant = sum;
+    }
+
+    @Override
+    public double evaluate(double[] x, int offset, int dim) {
+        double sum = 0;
+
+        for (int i = offset; i < offset + dim; ++i) {
+            double x_i = x[i] + 0.5;
+            for (int k = 0; k <= K_MAX; ++k) {
+                sum += aPow[k] * cos(bPow[k] * x_i);
+            }
+        }
+
+        return sum - dim * constant;
+    }
+
+}
@@ -0,0 +1,109 @@
+package evolutionary;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Standard normal deviates by ziggurat method of Marsaglia and Tsang with 128 layers.
+ * About 99% of deviates cost one random long, one comparison and one multiplication. Layer index and value are taken
+ * from different bits of the long, so they are not correlated (weakness of the original 32-bit version).
+ */
+public final class ZigguratSampler {
+    private static final int LAYERS = 128;
+    private static final double R = 3.442619855899;
+    private static final double AREA = 9.91256303526217e-3;
+    private static final double SCALE = 0x1.0p31;
+
+    private static final long[] K = new long[LAYERS];
+    private static final double[] W = new double[LAYERS];
+    private static final double[] F = new double[LAYERS];
+
+    static {
+        double dn = R;
+        double tn = dn;
+        double q = AREA / Math.exp(-0.5 * dn * dn);
+
+        K[0] = (long) ((dn / q) * SCALE);
+        K[1] = 0;
+        W[0] = q / SCALE;
+        W[LAYERS - 1] = dn / SCALE;
+        F[0] = 1;
+        F[LAYERS - 1] = Math.exp(-0.5 * dn * dn);
+
+        for (int i = LAYERS - 2; i >= 1; --i) {
+            dn = Math.sqrt(-2 * Math.log(AREA / dn + Math.exp(-0.5 * dn * dn)));
+            K[i + 1] = (long) ((dn / tn) * SCALE);
+            tn = dn;
+            F[i] = Math.exp(-0.5 * dn * dn);
+            W[i] = dn / SCALE;
+        }
+    }
+
+    private ZigguratSampler() {
+    }
+
+
+    /*----- Methods -----*/
+
+    /**
+     * @param rand Source of random bits.
+     * @return Standard normal deviate.
+     */
+    public static double next(RandomGenerator rand) {
+        long bits = rand.nextLong();
+        int layer = (int) bits & (LAYERS - 1);
+        int value = (int) (bits >> 32);
+
+        if (Math.abs((long) value) < K[layer]) {
+            return value * W[layer];
+        }
+        return tail(rand, layer, value);
+    }
+
+    /**
+     * Fills range of array with standard normal deviates.
+     *
+     * @param rand Source of random bits.
+     * @param out  Array to fill.
+     * @param from The first index to fill.
+     * @param to   Index after the last one to fill.
+     */
+    public static void fill(RandomGenerator rand, double[] out, int from, int to) {
+        for (int i = from; i < to; ++i) {
+            long bits = rand.nextLong();
+            int layer = (int) bits & (LAYERS - 1);
+            int value = (int) (bits >> 32);
+
+            out[i] = Math.abs((long) value) < K[layer] ? value * W[layer] : tail(rand, layer, value);
+        }
+    }
+
+    /**
+     * Slow path: wedge of a layer or tail beyond R, repeated with new random bits when point is rejected.
+     */
+    private static double tail(RandomGenerator rand, int layer, int value) {
+        while (true) {
+            double x = value * W[layer];
+
+            if (layer == 0) {
+                double y;
+                do {
+                    x = -Math.log(1 - rand.nextDouble()) / R;
+                    y = -Math.log(1 - rand.nextDouble());
+                } while (y + y < x * x);
+                return value > 0 ? R + x : -R - x;
+            }
+
+            if (F[layer] + rand.nextDouble() * (F[layer - 1] - F[layer]) < Math.exp(-0.5 * x * x)) {
+                return x;
+            }
+
+            long bits = rand.nextLong();
+            layer = (int) bits & (LAYERS - 1);
+            value = (int) (bits >> 32);
+            if (Math.abs((long) value) < K[layer]) {
+                return value * W[layer];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+package evolutionary;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CheckpointTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void resumeFromInitialStateContinuesExactly() throws IOException {
+        Path file = directory.resolve("initial.ckpt");
+        Evolution interrupted = new Evolution(40, 60, 8, 23, 20, 0.5, 42);
+        interrupted.setCheckpoint(file, 5);
+        interrupted.closeCheckpoint();
+
+        Evolution resumed = Evolution.resume(file, 5);
+        resumed.performEvolution();
+
+        PopulationTest.assertSamePopulations(uninterrupted(23), resumed);
+    }
+
+    @Test
+    void resumeFromLastSlotContinuesExactly() throws IOException {
+        for (boolean concurrentArms : new boolean[]{false, true}) {
+            Path file = directory.resolve("slot-" + concurrentArms + ".ckpt");
+
+            // Killed JVM is simulated by stopping both populations after generation 15
+            Evolution interrupted = new Evolution(40, 60, 8, 8, 20, 0.5, 42);
+            interrupted.setConcurrentArms(concurrentArms);
+            interrupted.addTerminationCriterion(progress -> progress.getGeneration() >= 15);
+            interrupted.setCheckpoint(file, 5);
+            interrupted.performEvolution();
+            assertEquals(15, interrupted.getGeneration(0));
+
+            Evolution resumed = Evolution.resume(file, 5);
+            resumed.setConcurrentArms(concurrentArms);
+            assertEquals(15, resumed.getGeneration(0));
+            assertEquals(15, resumed.getGeneration(1));
+            resumed.performEvolution();
+
+            PopulationTest.assertSamePopulations(uninterrupted(8), resumed);
+        }
+    }
+
+    @Test
+    void failedGenerationClosesCheckpointAndPublisher() throws IOException {
+        Path file = directory.resolve("failed.ckpt");
+        AtomicBoolean completed = new AtomicBoolean();
+
+        Evolution failed = new Evolution(40, 60, 8, 8, 20, 0.5, 42);
+        GenerationPublisher publisher = new GenerationPublisher(Runnable::run, 1);
+        publisher.subscribe(new Flow.Subscriber<GenerationSummary>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(GenerationSummary summary) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+                completed.set(true);
+            }
+        });
+        failed.setPublisher(publisher);
+        failed.addTerminationCriterion(progress -> {
+            if (progress.getGeneration() == 12) {
+                throw new IllegalStateException("Criterion failed");
+            }
+            return false;
+        });
+        failed.setCheckpoint(file, 5);
+
+        assertThrows(IllegalStateException.class, failed::performEvolution);
+        assertTrue(completed.get(), "publisher was not closed");
+
+        // Checkpoint holds the last generation written before the failure
+        Evolution resumed = Evolution.resume(file, 5);
+        assertEquals(10, resumed.getGeneration(0));
+        assertEquals(10, resumed.getGeneration(1));
+        resumed.performEvolution();
+        PopulationTest.assertSamePopulations(uninterrupted(8), resumed);
+    }
+
+    private static Evolution uninterrupted(int funcNum) {
+        Evolution evolution = new Evolution(40, 60, 8, funcNum, 20, 0.5, 42);
+        evolution.performEvolution();
+        return evolution;
+    }
+
+}
@@ -0,0 +1,68 @@
+package evolutionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompositionFunctionTest {
+    private static final int DIM = 10;
+
+    @Test
+    void valuesMatchDefinition() {
+        for (int funcNum : new int[]{23, 27}) {
+            Evolution evolution = new Evolution(10, 10, DIM, funcNum, 1, 0.5);
+            ObjectiveFunction function = new CompositionFunction(evolution);
+            SplittableRandom rand = new SplittableRandom(7);
+            double[] x = new double[DIM];
+
+            for (int k = 0; k < 200; ++k) {
+                for (int j = 0; j < DIM; ++j) {
+                    x[j] = rand.nextDouble(-100, 100);
+                }
+                assertEquals(definition(evolution, x), function.evaluate(x, 0, DIM), "function " + funcNum);
+            }
+        }
+    }
+
+    @Test
+    void pointFarFromEveryOptimumIsNaN() {
+        Evolution evolution = new Evolution(10, 10, DIM, 23, 1, 0.5);
+        double[] x = new double[DIM];
+        Arrays.fill(x, 1e5);
+
+        // Every weight underflows to zero, so omega_i are 0 / 0 as in definition
+        assertEquals(Double.NaN, definition(evolution, x));
+        assertEquals(Double.NaN, new CompositionFunction(evolution).evaluate(x, 0, DIM));
+    }
+
+    /**
+     * @return Value counted straight from definition, omega_i = w_i / sum of w_i.
+     */
+    private static double definition(Evolution evolution, double[] x) {
+        int n = evolution.getN();
+        double[] w = new double[n];
+        double sumW = 0;
+
+        for (int i = 0; i < n; ++i) {
+            double sum = 0;
+            for (int j = 0; j < DIM; ++j) {
+                double d = x[j] - evolution.getOptimum(i, j);
+                sum += d * d;
+            }
+            double sigma = evolution.getSigma()[i];
+            w[i] = Math.exp(-sum / (2 * DIM * (sigma * sigma))) / Math.sqrt(sum);
+            sumW += w[i];
+        }
+
+        double value = 0;
+        for (int i = 0; i < n; ++i) {
+            ObjectiveFunction g = ObjectiveFunctions.create(evolution.getG()[i], evolution);
+            value += w[i] / sumW * (evolution.getLambda()[i] * g.evaluate(x, 0, DIM) + evolution.getBias()[i]);
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,119 @@
+package evolutionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EvaluationKernelsTest {
+    private static final int[] DIMENSIONS = new int[]{1, 2, 3, 7, 8, 10, 17, 33, 100};
+    private static final int ROWS = 40;
+
+    /**
+     * Kernel of one function called on given kernels.
+     */
+    private interface Kernel {
+        void run(EvaluationKernels kernels, double[] x, int dim, int[] rows, int from, int to, double[] values);
+    }
+
+    private static final Map<Integer, Kernel> KERNELS = Map.of(
+            1, (k, x, dim, rows, from, to, values) ->
+                    k.weightedSumOfSquares(x, dim, rows, from, to, new EllipticFunction().coefficients(dim), values),
+            2, (k, x, dim, rows, from, to, values) -> k.headTailSquares(x, dim, rows, from, to, 1, 1000000, values),
+            3, (k, x, dim, rows, from, to, values) -> k.headTailSquares(x, dim, rows, from, to, 1000000, 1, values),
+            4, EvaluationKernels::rosenbrock,
+            7, (k, x, dim, rows, from, to, values) ->
+                    k.griewank(x, dim, rows, from, to, new GriewankFunction().sqrtIndex(dim), values),
+            8, EvaluationKernels::rastrigin,
+            12, EvaluationKernels::hgbat);
+
+    @Test
+    void scalarKernelsGiveValuesOfEvaluate() {
+        for (Map.Entry<Integer, Kernel> kernel : KERNELS.entrySet()) {
+            ObjectiveFunction function = ObjectiveFunctions.create(kernel.getKey(), null);
+
+            for (int dim : DIMENSIONS) {
+                double[] x = genes(dim);
+                int[] rows = rows();
+                double[] values = new double[ROWS];
+                kernel.getValue().run(new ScalarKernels(), x, dim, rows, 5, ROWS, values);
+
+                for (int i = 5; i < ROWS; ++i) {
+                    assertEquals(function.evaluate(x, rows[i] * dim, dim), values[rows[i]],
+                            "function " + kernel.getKey() + ", dimension " + dim);
+                }
+            }
+        }
+    }
+
+    @Test
+    void vectorKernelsMatchScalarKernels() {
+        EvaluationKernels vector = new VectorKernels();
+
+        for (Map.Entry<Integer, Kernel> kernel : KERNELS.entrySet()) {
+            for (int dim : DIMENSIONS) {
+                double[] x = genes(dim);
+                int[] rows = rows();
+                double[] expected = new double[ROWS];
+                double[] actual = new double[ROWS];
+                kernel.getValue().run(new ScalarKernels(), x, dim, rows, 0, ROWS, expected);
+                kernel.getValue().run(vector, x, dim, rows, 0, ROWS, actual);
+
+                for (int r = 0; r < ROWS; ++r) {
+                    assertEquals(expected[r], actual[r], 1e-12 * Math.max(1, Math.abs(expected[r])),
+                            "function " + kernel.getKey() + ", dimension " + dim);
+                }
+            }
+        }
+    }
+
+    @Test
+    void batchOfFunctionsMatchesEvaluate() {
+        for (int funcNum : KERNELS.keySet()) {
+            ObjectiveFunction function = ObjectiveFunctions.create(funcNum, null);
+
+            for (int dim : DIMENSIONS) {
+                double[] x = genes(dim);
+                int[] rows = rows();
+                double[] values = new double[ROWS];
+                function.evaluateBatch(x, dim, rows, 0, ROWS, values);
+
+                for (int r = 0; r < ROWS; ++r) {
+                    double expected = function.evaluate(x, r * dim, dim);
+                    assertEquals(expected, values[r], 1e-12 * Math.max(1, Math.abs(expected)),
+                            "function " + funcNum + ", dimension " + dim);
+                }
+            }
+        }
+    }
+
+    private static double[] genes(int dim) {
+        SplittableRandom rand = new SplittableRandom(dim);
+        double[] x = new double[ROWS * dim];
+        for (int i = 0; i < x.length; ++i) {
+            x[i] = rand.nextDouble(-100, 100);
+        }
+        return x;
+    }
+
+    /**
+     * @return All rows in shuffled order, so kernels are not tested on contiguous rows only.
+     */
+    private static int[] rows() {
+        SplittableRandom rand = new SplittableRandom(7);
+        int[] rows = new int[ROWS];
+        for (int i = 0; i < ROWS; ++i) {
+            rows[i] = i;
+        }
+        for (int i = ROWS - 1; i > 0; --i) {
+            int j = rand.nextInt(i + 1);
+            int tmp = rows[i];
+            rows[i] = rows[j];
+            rows[j] = tmp;
+        }
+        return rows;
+    }
+
+}
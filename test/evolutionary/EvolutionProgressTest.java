@@ -0,0 +1,53 @@
+package evolutionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EvolutionProgressTest {
+
+    @Test
+    void diversityOfCollapsedPopulationFarFromOrigin() {
+        Evolution evolution = new Evolution(10, 10, 10, 8, 1, 0.5, 42);
+        Population population = new Population(evolution, 1000, 10, -100, 100, 10, evolution.getObjectiveFunction());
+        PopulationStore store = population.getStore();
+        double[] x = store.getX();
+
+        // Spread of 1e-2 around 1e8, where sums of squares of genes lose all of it
+        SplittableRandom rand = new SplittableRandom(3);
+        double[] noise = new double[store.getSize() * 10];
+        for (int i = 0; i < noise.length; ++i) {
+            noise[i] = rand.nextDouble(-0.01, 0.01);
+        }
+        for (int i = 0; i < store.getSize(); ++i) {
+            for (int j = 0; j < 10; ++j) {
+                x[store.offset(i) + j] = 1e8 + noise[i * 10 + j];
+            }
+        }
+
+        EvolutionProgress progress = new EvolutionProgress(0, population, System.nanoTime());
+        assertEquals(diversity(noise, store.getSize(), 10), progress.getDiversity(), 1e-6);
+    }
+
+    /**
+     * @return Root mean square distance from centroid of rows, counted directly.
+     */
+    private static double diversity(double[] x, int size, int dim) {
+        double squares = 0;
+        for (int j = 0; j < dim; ++j) {
+            double mean = 0;
+            for (int i = 0; i < size; ++i) {
+                mean += x[i * dim + j];
+            }
+            mean /= size;
+            for (int i = 0; i < size; ++i) {
+                double d = x[i * dim + j] - mean;
+                squares += d * d;
+            }
+        }
+        return Math.sqrt(squares / size);
+    }
+
+}
@@ -0,0 +1,62 @@
+package evolutionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EvolutionTest {
+
+    @Test
+    void sameSeedGivesSameResultsInEveryMode() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int funcNum : new int[]{1, 8, 23}) {
+                Evolution reference = new Evolution(50, 75, 8, funcNum, 20, 0.5, 42);
+                reference.performEvolution();
+
+                // Every combination of concurrent arms, evaluation pool and fitness cache
+                for (int mode = 1; mode < 8; ++mode) {
+                    Evolution evolution = new Evolution(50, 75, 8, funcNum, 20, 0.5, 42);
+                    evolution.setConcurrentArms((mode & 1) != 0);
+                    if ((mode & 2) != 0) {
+                        evolution.setEvaluationPool(pool);
+                    }
+                    if ((mode & 4) != 0) {
+                        evolution.setFitnessCache(new FitnessCache(1 << 12));
+                    }
+                    evolution.performEvolution();
+
+                    PopulationTest.assertSamePopulations(reference, evolution);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void failureOfCallingArmStopsWeddingArm() {
+        Evolution evolution = new Evolution(50, 75, 8, 8, 100000, 0.5, 42);
+        evolution.setConcurrentArms(true);
+        evolution.addTerminationCriterion(progress -> {
+            if (progress.getArm() == 1 && progress.getGeneration() == 5) {
+                throw new IllegalStateException("Criterion failed");
+            }
+            return false;
+        });
+
+        assertThrows(IllegalStateException.class, evolution::performEvolution);
+
+        int generation = evolution.getGeneration(0);
+        assertTrue(generation < 100000);
+        assertFalse(Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(thread -> thread.getName().equals("evolution-wedding-arm")), "wedding arm still runs");
+        assertEquals(generation, evolution.getGeneration(0));
+    }
+
+}
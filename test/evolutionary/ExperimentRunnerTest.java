@@ -0,0 +1,52 @@
+package evolutionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExperimentRunnerTest {
+
+    @Test
+    void resultsDoNotDependOnParallelism() {
+        Map<String, String> sequential = run(1, "");
+        Map<String, String> parallel = run(4, "");
+
+        assertEquals(12, sequential.size());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    void resultsDoNotDependOnNamesOfGroups() {
+        Map<String, String> named = run(4, "");
+        Map<String, String> renamed = new HashMap<>();
+        run(4, "Renamed ").forEach((key, value) -> renamed.put(key.substring("Renamed ".length()), value));
+
+        assertEquals(named, renamed);
+    }
+
+    /**
+     * @param prefix Prefix of names of groups.
+     * @return Best and worst values of every run keyed by group and number of run.
+     */
+    private static Map<String, String> run(int parallelism, String prefix) {
+        ExperimentRunner runner = new ExperimentRunner(parallelism, 42);
+        Map<String, String> results = new ConcurrentHashMap<>();
+        try {
+            runner.add(prefix + "Elliptic", 30, 45, 6, 1, 10, 0.5, 4);
+            runner.add(prefix + "Rastrigin", 30, 45, 6, 8, 10, 0.5, 4);
+            runner.add(prefix + "Composition", 30, 45, 6, 23, 10, 0.5, 4);
+            runner.run((group, index, evolution) -> results.put(group + " " + index,
+                    Arrays.toString(evolution.bestObjFuncValIndividual())
+                            + Arrays.toString(evolution.worstObjFuncValIndividual())));
+        } finally {
+            runner.shutdown();
+        }
+        return results;
+    }
+
+}
@@ -0,0 +1,232 @@
+package evolutionary;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExternalObjectiveFunctionTest {
+    private static final int DIM = 10;
+    private static final int ROWS = 50;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void workersGiveValuesOfFunction() throws IOException {
+        try (ExternalObjectiveFunction external = new ExternalObjectiveFunction(ObjectiveWorker.command(8, 0, 0), 3)) {
+            for (int batchSize : new int[]{1, 7, 16, ROWS}) {
+                external.setBatchSize(batchSize);
+                assertSameValues(external);
+            }
+            assertEquals(0, external.getRestarts());
+        }
+    }
+
+    @Test
+    void requestNotAnsweredInTimeFailsAfterRetries() throws IOException {
+        try (ExternalObjectiveFunction external = new ExternalObjectiveFunction(ObjectiveWorker.command(8, 60000, 0), 2)) {
+            external.setTimeout(Duration.ofMillis(300));
+            external.setRetries(1);
+
+            long start = System.nanoTime();
+            UncheckedIOException failure = assertThrows(UncheckedIOException.class,
+                    () -> external.evaluate(genes(), 0, DIM));
+            long elapsedMillis = (System.nanoTime() - start) / 1000000;
+
+            assertTrue(failure.getCause().getMessage().contains("did not answer in time"));
+            assertTrue(elapsedMillis >= 600 && elapsedMillis < 10000, "elapsed " + elapsedMillis + " ms");
+            // Retry went to the other worker, the killed one was not started again
+            assertEquals(0, external.getRestarts());
+        }
+    }
+
+    @Test
+    void crashedWorkersAreStartedAgain() throws IOException {
+        try (ExternalObjectiveFunction external = new ExternalObjectiveFunction(ObjectiveWorker.command(8, 0, 3), 2)) {
+            external.setBatchSize(4);
+            external.setRetries(5);
+
+            assertSameValues(external);
+            assertSameValues(external);
+            assertTrue(external.getRestarts() > 0);
+        }
+    }
+
+    @Test
+    void requestOfKilledWorkerIsRetriedWithoutSpendingAttempt() throws Exception {
+        Path hang = Files.createFile(directory.resolve("hang"));
+        List<String> command = testWorker(HangOnceWorker.class, hang.toString());
+
+        try (ExternalObjectiveFunction external = new ExternalObjectiveFunction(command, 1)) {
+            external.setTimeout(Duration.ofMillis(1500));
+            external.setRetries(0);
+            double[] x = genes();
+
+            // First request hangs, second waits behind it until worker is killed for the first one
+            CompletableFuture<Double> first = CompletableFuture.supplyAsync(() -> external.evaluate(x, 0, DIM));
+            Thread.sleep(500);
+            double second = external.evaluate(x, DIM, DIM);
+
+            assertEquals(ObjectiveFunctions.create(8, null).evaluate(x, DIM, DIM), second);
+            Exception failure = assertThrows(Exception.class, first::join);
+            assertInstanceOf(UncheckedIOException.class, failure.getCause());
+        }
+    }
+
+    @Test
+    void answerWithWrongNumberOfValuesFails() throws IOException {
+        try (ExternalObjectiveFunction external = new ExternalObjectiveFunction(testWorker(ShortAnswerWorker.class), 1)) {
+            external.setRetries(1);
+            external.setBatchSize(4);
+            int[] rows = rows();
+
+            UncheckedIOException failure = assertThrows(UncheckedIOException.class,
+                    () -> external.evaluateBatch(genes(), DIM, rows, 0, ROWS, new double[ROWS]));
+            assertTrue(failure.getCause().getMessage().contains("answered 3 values for 4 rows"));
+        }
+    }
+
+    @Test
+    void maxInFlightCanChangeDuringEvaluation() throws Exception {
+        try (ExternalObjectiveFunction external = new ExternalObjectiveFunction(ObjectiveWorker.command(8, 5, 0), 2)) {
+            external.setBatchSize(1);
+
+            CompletableFuture<Void> evaluation = CompletableFuture.runAsync(() -> assertSameValues(external));
+            external.setMaxInFlight(1);
+            external.setMaxInFlight(20);
+            external.setMaxInFlight(3);
+            evaluation.join();
+
+            assertSameValues(external);
+        }
+    }
+
+    private static void assertSameValues(ExternalObjectiveFunction external) {
+        ObjectiveFunction function = ObjectiveFunctions.create(8, null);
+        double[] x = genes();
+        int[] rows = rows();
+        double[] values = new double[ROWS];
+
+        external.evaluateBatch(x, DIM, rows, 0, ROWS, values);
+        for (int r = 0; r < ROWS; ++r) {
+            assertEquals(function.evaluate(x, r * DIM, DIM), values[r], "row " + r);
+        }
+    }
+
+    private static double[] genes() {
+        SplittableRandom rand = new SplittableRandom(42);
+        double[] x = new double[ROWS * DIM];
+        for (int i = 0; i < x.length; ++i) {
+            x[i] = rand.nextDouble(-100, 100);
+        }
+        return x;
+    }
+
+    private static int[] rows() {
+        int[] rows = new int[ROWS];
+        for (int i = 0; i < ROWS; ++i) {
+            rows[i] = ROWS - 1 - i;
+        }
+        return rows;
+    }
+
+    /**
+     * @return Command starting given test worker instead of {@link ObjectiveWorker}.
+     */
+    private static List<String> testWorker(Class<?> worker, String... args) {
+        List<String> command = new ArrayList<>(ObjectiveWorker.command(8, 0, 0));
+        int main = command.indexOf(ObjectiveWorker.class.getName());
+        command.subList(main, command.size()).clear();
+        command.add(worker.getName());
+        command.addAll(List.of(args));
+        return command;
+    }
+
+    /**
+     * Answers requests until input ends, values are computed by given answer.
+     */
+    private static void serve(Answer answer) throws IOException, InterruptedException {
+        ObjectiveFunction function = ObjectiveFunctions.create(8, null);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(System.out));
+
+        while (true) {
+            int id;
+            try {
+                id = in.readInt();
+            } catch (EOFException e) {
+                return;
+            }
+            int count = in.readInt();
+            int dim = in.readInt();
+            double[] x = new double[count * dim];
+            for (int i = 0; i < x.length; ++i) {
+                x[i] = in.readDouble();
+            }
+
+            double[] values = new double[count];
+            for (int i = 0; i < count; ++i) {
+                values[i] = function.evaluate(x, i * dim, dim);
+            }
+            values = answer.apply(values);
+
+            out.writeInt(id);
+            out.writeInt(values.length);
+            for (double value : values) {
+                out.writeDouble(value);
+            }
+            out.flush();
+        }
+    }
+
+    private interface Answer {
+        double[] apply(double[] values) throws InterruptedException, IOException;
+    }
+
+    /**
+     * Worker hanging on its first request while given file exists, the file is deleted, so only one worker hangs.
+     */
+    static class HangOnceWorker {
+
+        public static void main(String[] args) throws IOException, InterruptedException {
+            Path hang = Path.of(args[0]);
+            serve(values -> {
+                if (Files.deleteIfExists(hang)) {
+                    Thread.sleep(Long.MAX_VALUE);
+                }
+                return values;
+            });
+        }
+    }
+
+    /**
+     * Worker answering one value less than number of rows.
+     */
+    static class ShortAnswerWorker {
+
+        public static void main(String[] args) throws IOException, InterruptedException {
+            serve(values -> Arrays.copyOf(values, values.length - 1));
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+package evolutionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FitnessCacheTest {
+
+    @Test
+    void nanValueIsCached() {
+        FitnessCache cache = new FitnessCache(1 << 8);
+        AtomicInteger evaluations = new AtomicInteger();
+        ObjectiveFunction cached = new CachedObjectiveFunction((x, offset, dim) -> {
+            evaluations.incrementAndGet();
+            return Double.NaN;
+        }, cache);
+        double[] x = new double[]{1, 2, 3};
+
+        assertNull(cache.get(x, 0, 3));
+        assertEquals(Double.NaN, cached.evaluate(x, 0, 3));
+        assertEquals(Double.NaN, cached.evaluate(x, 0, 3));
+
+        assertEquals(1, evaluations.get());
+        assertEquals(Double.NaN, cache.get(x, 0, 3));
+    }
+
+    @Test
+    void batchEvaluatesMissingRowsOnly() {
+        FitnessCache cache = new FitnessCache(1 << 8);
+        ObjectiveFunction function = ObjectiveFunctions.create(8, null);
+        AtomicInteger evaluations = new AtomicInteger();
+        ObjectiveFunction cached = new CachedObjectiveFunction((x, offset, dim) -> {
+            evaluations.incrementAndGet();
+            return function.evaluate(x, offset, dim);
+        }, cache);
+
+        int dim = 4;
+        double[] x = new double[10 * dim];
+        for (int i = 0; i < x.length; ++i) {
+            x[i] = 0.5 * i - 3;
+        }
+        int[] rows = new int[]{9, 8, 7, 6, 5, 4, 3, 2, 1, 0};
+
+        double[] values = new double[10];
+        cached.evaluateBatch(x, dim, rows, 5, 10, values);
+        cached.evaluateBatch(x, dim, rows, 0, 10, values);
+        cached.evaluateBatch(x, dim, rows, 3, 7, values);
+
+        assertEquals(10, evaluations.get());
+        for (int r = 0; r < 10; ++r) {
+            assertEquals(function.evaluate(x, r * dim, dim), values[r]);
+        }
+    }
+
+}
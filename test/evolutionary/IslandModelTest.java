@@ -0,0 +1,103 @@
+package evolutionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IslandModelTest {
+
+    @Test
+    void ringSendsToNextIsland() {
+        int[] targets = new int[5];
+        for (int island = 0; island < 5; ++island) {
+            assertEquals(1, MigrationTopology.RING.targets(island, 5, null, targets));
+            assertEquals((island + 1) % 5, targets[0]);
+        }
+        assertEquals(0, MigrationTopology.RING.targets(0, 1, null, targets));
+    }
+
+    @Test
+    void fullyConnectedSendsToAllOtherIslands() {
+        int[] targets = new int[5];
+        for (int island = 0; island < 5; ++island) {
+            assertEquals(4, MigrationTopology.FULLY_CONNECTED.targets(island, 5, null, targets));
+            int[] expected = new int[4];
+            for (int i = 0, t = 0; i < 5; ++i) {
+                if (i != island) {
+                    expected[t++] = i;
+                }
+            }
+            assertArrayEquals(expected, Arrays.copyOf(targets, 4));
+        }
+        assertEquals(0, MigrationTopology.FULLY_CONNECTED.targets(0, 1, null, targets));
+    }
+
+    @Test
+    void randomSendsToAnyOtherIsland() {
+        SplittableRandom rand = new SplittableRandom(42);
+        int[] targets = new int[5];
+        for (int island = 0; island < 5; ++island) {
+            int[] received = new int[5];
+            for (int k = 0; k < 2000; ++k) {
+                assertEquals(1, MigrationTopology.RANDOM.targets(island, 5, rand, targets));
+                ++received[targets[0]];
+            }
+            for (int i = 0; i < 5; ++i) {
+                if (i == island) {
+                    assertEquals(0, received[i], "island " + island + " sent to itself");
+                } else {
+                    assertTrue(received[i] > 400, "island " + i + " received " + received[i] + " from " + island);
+                }
+            }
+        }
+        assertEquals(0, MigrationTopology.RANDOM.targets(0, 1, rand, targets));
+        assertEquals(0, MigrationTopology.RANDOM.targets(0, 0, rand, targets));
+    }
+
+    @Test
+    void immigrantsReplaceWorstIndividuals() {
+        Evolution evolution = new Evolution(20, 30, 10, 8, 0, 0.5, 42);
+
+        // Islands draw from their own streams, so without migration they end where migrating ones took immigrants
+        IslandModel alone = new IslandModel(evolution, 2, 20, 30, 0.5, false);
+        alone.setMigrants(0);
+        alone.performEvolution(1);
+
+        IslandModel migrating = new IslandModel(evolution, 2, 20, 30, 0.5, false);
+        migrating.setMigrationInterval(1);
+        migrating.setMigrants(3);
+        migrating.performEvolution(1);
+
+        for (int island = 0; island < 2; ++island) {
+            Population before = alone.getIslands()[island];
+            Population after = migrating.getIslands()[island];
+            Individual[] immigrants = alone.getIslands()[1 - island].getBestIndividuals(3);
+
+            // Only rows of the worst individuals changed, any of equally bad ones, and they hold immigrants
+            double[] values = Arrays.copyOf(before.getStore().getObjFuncVal(), before.getSize());
+            Arrays.sort(values);
+            double threshold = values[values.length - 3];
+            int changed = 0;
+            for (int row = 0; row < before.getSize(); ++row) {
+                Individual expected = before.getIndividual(row);
+                Individual actual = after.getIndividual(row);
+                if (Arrays.equals(expected.getX(), actual.getX())) {
+                    assertEquals(expected.getObjFuncVal(), actual.getObjFuncVal());
+                    continue;
+                }
+
+                ++changed;
+                assertTrue(expected.getObjFuncVal() >= threshold, "row " + row + " of island " + island + " is kept");
+                assertTrue(Arrays.stream(immigrants).anyMatch(i -> Arrays.equals(i.getX(), actual.getX())
+                        && i.getObjFuncVal() == actual.getObjFuncVal()), "row " + row + " of island " + island);
+            }
+            assertEquals(3, changed, "island " + island);
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+package evolutionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalIslandClusterTest {
+
+    @Test
+    void islandKilledDuringEvolutionIsDropped() throws Exception {
+        // Island 1 is killed a while after its process started, long before it can finish
+        IslandCoordinator coordinator = runKilling(1500, 1500);
+
+        assertEquals(Set.of(0, 2), coordinator.getFinishedIslands());
+        assertEquals(Set.of(1), coordinator.getDroppedIslands());
+        assertBestReported(coordinator);
+    }
+
+    @Test
+    void islandKilledBeforeConnectingIsDropped() throws Exception {
+        // Island 1 is killed as soon as its process appears, before it can greet coordinator
+        IslandCoordinator coordinator = runKilling(200, 0);
+
+        assertEquals(Set.of(0, 2), coordinator.getFinishedIslands());
+        assertEquals(Set.of(1), coordinator.getDroppedIslands());
+        assertBestReported(coordinator);
+    }
+
+    @Test
+    void finishedWeddingIslandReportsLowestRawValue() throws Exception {
+        Evolution evolution = new Evolution(20, 30, 10, 8, 0, 0.5, 1);
+        IslandNode node = new IslandNode(evolution, 0, 20, 30, 0.5, true);
+        // No migration, so the final report is the only one
+        node.setMigrationInterval(1000);
+
+        try (IslandCoordinator coordinator = new IslandCoordinator(0, 1, MigrationTopology.RING, 42)) {
+            node.connect(InetAddress.getLoopbackAddress().getHostAddress(), coordinator.getPort());
+            node.performEvolution(50);
+            node.finish();
+            assertTrue(coordinator.awaitCompletion(10, TimeUnit.SECONDS));
+
+            Population population = node.getPopulation();
+            PopulationStore store = population.getStore();
+            double lowest = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < store.getSize(); ++i) {
+                lowest = Math.min(lowest, store.getRawObjFuncVal(i));
+            }
+            // Averaged values of married individuals rank another individual first
+            assertNotEquals(lowest, population.getBestIndividuals(1)[0].getRawObjFuncVal());
+            assertEquals(lowest, coordinator.getBestObjFuncVal());
+            assertEquals(0, coordinator.getBestIsland());
+        }
+    }
+
+    /**
+     * Runs three islands on loopback and kills process of island 1 after given delay.
+     */
+    private static IslandCoordinator runKilling(int generations, long delayMillis) throws Exception {
+        LocalIslandCluster cluster = new LocalIslandCluster(3, 8, 10, 100, 150, 0.5, true, 42);
+        cluster.setMigrationInterval(5);
+        cluster.setTimeoutSeconds(120);
+
+        CompletableFuture<Boolean> killed = CompletableFuture.supplyAsync(() -> {
+            try {
+                ProcessHandle island = awaitIsland(1);
+                Thread.sleep(delayMillis);
+                return island.destroyForcibly();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+
+        IslandCoordinator coordinator = cluster.run(generations);
+        assertTrue(killed.get(), "island 1 was not killed");
+        return coordinator;
+    }
+
+    /**
+     * @return Process of island started by this JVM.
+     */
+    private static ProcessHandle awaitIsland(int island) throws InterruptedException {
+        while (true) {
+            Optional<ProcessHandle> found = ProcessHandle.current().children()
+                    .filter(child -> isIsland(child, island))
+                    .findFirst();
+            if (found.isPresent()) {
+                return found.get();
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    private static boolean isIsland(ProcessHandle process, int island) {
+        List<String> arguments = List.of(process.info().arguments().orElse(new String[0]));
+        int main = arguments.indexOf(IslandNode.class.getName());
+        return main >= 0 && arguments.size() > main + 3 && arguments.get(main + 3).equals(Integer.toString(island));
+    }
+
+    private static void assertBestReported(IslandCoordinator coordinator) {
+        assertTrue(coordinator.getBestObjFuncVal() < 10E9, "no island reported its best individual");
+        assertTrue(Set.of(0, 1, 2).contains(coordinator.getBestIsland()));
+        assertEquals(coordinator.getBestIndividual().getRawObjFuncVal(), coordinator.getBestObjFuncVal());
+    }
+
+}
@@ -0,0 +1,54 @@
+package evolutionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class MutationKernelTest {
+
+    @Test
+    void mutateAppliesSelfAdaptiveUpdateToChosenRowsOnly() {
+        int dim = 5;
+        int rowCount = 150;
+        double tau = 1 / Math.sqrt(2 * dim);
+        double tauPrim = 1 / Math.sqrt(2 * Math.sqrt(dim));
+        double[] x = new double[rowCount * dim];
+        double[] sigma = new double[rowCount * dim];
+        for (int i = 0; i < x.length; ++i) {
+            x[i] = i % 17 - 8;
+            sigma[i] = 0.1 + i % 5;
+        }
+
+        // Every other row, more than one block of rows
+        int[] rows = new int[rowCount / 2];
+        for (int i = 0; i < rows.length; ++i) {
+            rows[i] = 2 * i + 1;
+        }
+
+        double[] expectedX = x.clone();
+        double[] expectedSigma = sigma.clone();
+        RandomGenerator reference = generator();
+        for (int row : rows) {
+            double common = tau * ZigguratSampler.next(reference);
+            for (int j = 0; j < dim; ++j) {
+                expectedSigma[row * dim + j] *= Math.exp(common + tauPrim * ZigguratSampler.next(reference));
+            }
+            for (int j = 0; j < dim; ++j) {
+                expectedX[row * dim + j] += expectedSigma[row * dim + j] * ZigguratSampler.next(reference);
+            }
+        }
+
+        new MutationKernel().mutate(x, sigma, dim, rows, 0, rows.length, tau, tauPrim, generator());
+
+        assertArrayEquals(expectedSigma, sigma);
+        assertArrayEquals(expectedX, x);
+    }
+
+    private static RandomGenerator generator() {
+        return RandomGeneratorFactory.of(RandomStreams.ALGORITHM).create(42);
+    }
+
+}
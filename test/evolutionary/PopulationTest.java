@@ -0,0 +1,272 @@
+package evolutionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PopulationTest {
+
+    /**
+     * Asserts that both populations of evolutions hold the same genomes and values, bit for bit.
+     */
+    static void assertSamePopulations(Evolution expected, Evolution actual) {
+        for (int arm = ExperimentSummary.INITIAL; arm <= ExperimentSummary.WITHOUT_WEDDING; ++arm) {
+            PopulationStore a = expected.getPopulation(arm).getStore();
+            PopulationStore b = actual.getPopulation(arm).getStore();
+            int dim = a.getDimension();
+
+            assertEquals(a.getSize(), b.getSize(), "size of arm " + arm);
+            assertArrayEquals(Arrays.copyOf(a.getX(), a.getSize() * dim), Arrays.copyOf(b.getX(), b.getSize() * dim),
+                    "genes of arm " + arm);
+            assertArrayEquals(Arrays.copyOf(a.getSigma(), a.getSize() * dim),
+                    Arrays.copyOf(b.getSigma(), b.getSize() * dim), "sigmas of arm " + arm);
+            assertArrayEquals(Arrays.copyOf(a.getObjFuncVal(), a.getSize()), Arrays.copyOf(b.getObjFuncVal(), b.getSize()),
+                    "values of arm " + arm);
+        }
+    }
+
+    @Test
+    void parallelEvaluationIsBitIdenticalToSequential() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int funcNum : new int[]{1, 6, 8, 23}) {
+                Evolution sequential = new Evolution(60, 90, 10, funcNum, 15, 0.5, 42);
+                sequential.performEvolution();
+
+                Evolution parallel = new Evolution(60, 90, 10, funcNum, 15, 0.5, 42);
+                parallel.setEvaluationPool(pool);
+                parallel.performEvolution();
+
+                assertSamePopulations(sequential, parallel);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void parallelEvaluationGivesValuesOfEvaluation() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int funcNum : new int[]{1, 6, 8, 23}) {
+                Evolution evolution = new Evolution(60, 90, 10, funcNum, 15, 0.5);
+                ObjectiveFunction function = ObjectiveFunctions.create(funcNum, evolution);
+                Population population = new Population(evolution, 200, 10, -100, 100, 10, function);
+                population.setEvaluationPool(pool);
+                population.performMutations(1);
+
+                PopulationStore store = population.getStore();
+                for (int i = 0; i < store.getSize(); ++i) {
+                    assertEquals(function.evaluate(store.getX(), store.offset(i), 10), store.getObjFuncVal(i),
+                            "row " + i + " of function " + funcNum);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void sparseMutationRefreshCountsWholePopulationFromScratch() {
+        Evolution evolution = new Evolution(60, 90, 50, 8, 200, 0.5, 42);
+        evolution.setSparseMutation(2, 100);
+        evolution.performEvolution();
+
+        // Values counted by the same batch kernels as refresh
+        ObjectiveFunction function = ObjectiveFunctions.create(8, null);
+        for (int arm = ExperimentSummary.WITH_WEDDING; arm <= ExperimentSummary.WITHOUT_WEDDING; ++arm) {
+            PopulationStore store = evolution.getPopulation(arm).getStore();
+            int[] rows = new int[store.getSize()];
+            for (int i = 0; i < rows.length; ++i) {
+                rows[i] = i;
+            }
+            double[] expected = new double[rows.length];
+            function.evaluateBatch(store.getX(), 50, rows, 0, rows.length, expected);
+
+            assertArrayEquals(expected, Arrays.copyOf(store.getRawObjFuncVal(), rows.length), "raw values of arm " + arm);
+        }
+    }
+
+    @Test
+    void quickselectMovesSmallestKeysToFront() {
+        SplittableRandom rand = new SplittableRandom(5);
+        double[] keys = new double[100];
+        for (int i = 0; i < keys.length; ++i) {
+            // Many ties and some NaN, which orders after every number
+            keys[i] = rand.nextInt(10) == 0 ? Double.NaN : rand.nextInt(8);
+        }
+        double[] sorted = keys.clone();
+        Arrays.sort(sorted);
+
+        for (int k = 0; k <= keys.length; ++k) {
+            int[] idx = new int[keys.length];
+            for (int i = 0; i < idx.length; ++i) {
+                idx[i] = i;
+            }
+            Population.selectIndices(idx, keys, keys.length, k);
+
+            double[] front = new double[k];
+            for (int i = 0; i < k; ++i) {
+                front[i] = keys[idx[i]];
+            }
+            Arrays.sort(front);
+            assertArrayEquals(Arrays.copyOf(sorted, k), front, "k = " + k);
+
+            int[] all = idx.clone();
+            Arrays.sort(all);
+            assertArrayEquals(IntStream.range(0, keys.length).toArray(), all, "indices lost for k = " + k);
+        }
+    }
+
+    @Test
+    void survivorSelectionsKeepTheSameValues() {
+        for (double nanShare : new double[]{0.1, 0.7}) {
+            Population full = limited(SurvivorSelection.FULL_SORT, nanShare);
+            Population partial = limited(SurvivorSelection.PARTIAL_SORT, nanShare);
+            Population unordered = limited(SurvivorSelection.UNORDERED, nanShare);
+
+            double[] expected = values(full);
+            assertTrue(isAscending(expected), "full sort is best-first");
+            assertTrue(isAscending(values(partial)), "partial sort is best-first");
+            assertTrue(partial.isSorted());
+            assertFalse(unordered.isSorted());
+
+            double[] actual = values(unordered);
+            Arrays.sort(actual);
+            assertArrayEquals(expected, values(partial), "NaN share " + nanShare);
+            assertArrayEquals(expected, actual, "NaN share " + nanShare);
+        }
+    }
+
+    @Test
+    void bestIndividualsOfUnsortedPopulationAreDetachedBestFirst() {
+        Population population = unsorted();
+        double[] values = values(population);
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        Individual[] best = population.getBestIndividuals(7);
+        assertEquals(7, best.length);
+        for (int i = 0; i < best.length; ++i) {
+            assertEquals(sorted[i], best[i].getObjFuncVal(), "rank " + i);
+        }
+
+        double[] genes = population.getStore().getX().clone();
+        for (Individual individual : best) {
+            individual.getX()[0] += 1;
+            individual.setObjFuncVal(100);
+        }
+        assertArrayEquals(genes, population.getStore().getX());
+        assertArrayEquals(values, values(population));
+        assertEquals(population.getSize(), population.getBestIndividuals(100).length);
+    }
+
+    @Test
+    void replaceWorstOverwritesRowsOfWorstIndividuals() {
+        Population population = unsorted();
+        double[] values = values(population);
+        double[] genes = population.getStore().getX().clone();
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        double threshold = sorted[sorted.length - 3];
+
+        Population donor = unsorted();
+        Individual[] immigrants = donor.getBestIndividuals(3);
+        population.replaceWorst(immigrants, 3);
+
+        // Any of equally bad individuals may be replaced
+        PopulationStore store = population.getStore();
+        int replaced = 0;
+        for (int i = 0; i < values.length; ++i) {
+            if (store.getX()[store.offset(i)] == genes[store.offset(i)]) {
+                assertEquals(values[i], store.getObjFuncVal(i));
+                continue;
+            }
+            ++replaced;
+            assertTrue(values[i] >= threshold, "row " + i + " is not among the worst");
+            assertFalse(store.isMarried(i));
+            assertEquals(store.getRawObjFuncVal(i), store.getObjFuncVal(i));
+        }
+        assertEquals(3, replaced);
+
+        double[] expected = Arrays.copyOf(sorted, sorted.length);
+        for (int i = 0; i < 3; ++i) {
+            expected[sorted.length - 1 - i] = immigrants[i].getRawObjFuncVal();
+        }
+        Arrays.sort(expected);
+        double[] actual = values(population);
+        Arrays.sort(actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    /**
+     * @return Population of 30 individuals with tied values between -10 and 10, not ordered.
+     */
+    private static Population unsorted() {
+        Evolution evolution = new Evolution(30, 45, 4, 8, 1, 0.5);
+        Population population = new Population(evolution, 30, 4, -100, 100, 10, ObjectiveFunctions.create(8, null));
+        SplittableRandom rand = new SplittableRandom(3);
+        PopulationStore store = population.getStore();
+        for (int i = 0; i < store.getSize(); ++i) {
+            double value = rand.nextInt(-10, 10);
+            store.setObjFuncVal(i, value);
+            store.setRawObjFuncVal(i, value);
+        }
+        assertFalse(population.isSorted());
+        return population;
+    }
+
+    /**
+     * Limits 40 parents and 60 children with tied values, given share of them NaN, by given survivor selection.
+     * The first gene of every row identifies it, survivors are checked to have moved with their values.
+     */
+    private static Population limited(SurvivorSelection survivorSelection, double nanShare) {
+        Evolution evolution = new Evolution(40, 60, 4, 8, 1, 0.5);
+        ObjectiveFunction function = ObjectiveFunctions.create(8, null);
+        Population parents = new Population(evolution, 40, 4, -100, 100, 10, function);
+        Population children = new Population(evolution, 60, 4, -100, 100, 10, function);
+        parents.setSurvivorSelection(survivorSelection);
+
+        SplittableRandom rand = new SplittableRandom(11);
+        double[] values = new double[100];
+        for (int id = 0; id < values.length; ++id) {
+            values[id] = rand.nextDouble() < nanShare ? Double.NaN : rand.nextInt(6);
+            PopulationStore store = id < 40 ? parents.getStore() : children.getStore();
+            int row = id < 40 ? id : id - 40;
+            store.getX()[store.offset(row)] = id;
+            store.setObjFuncVal(row, values[id]);
+        }
+
+        parents.limitPopulation(children);
+
+        PopulationStore store = parents.getStore();
+        assertEquals(40, store.getSize());
+        for (int i = 0; i < store.getSize(); ++i) {
+            int id = (int) store.getX()[store.offset(i)];
+            assertEquals(values[id], store.getObjFuncVal(i), "row " + i);
+        }
+        return parents;
+    }
+
+    private static double[] values(Population population) {
+        return Arrays.copyOf(population.getStore().getObjFuncVal(), population.getSize());
+    }
+
+    private static boolean isAscending(double[] values) {
+        for (int i = 1; i < values.length; ++i) {
+            if (Double.compare(values[i - 1], values[i]) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,68 @@
+package evolutionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantileSketchTest {
+    private static final double[] QUANTILES = new double[]{0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 1};
+
+    /**
+     * @return Values of both signs spread over many orders of magnitude, with some zeros.
+     */
+    static double[] values(int count, long seed) {
+        SplittableRandom rand = new SplittableRandom(seed);
+        double[] values = new double[count];
+        for (int i = 0; i < count; ++i) {
+            double magnitude = Math.exp(rand.nextDouble(-20, 20));
+            values[i] = i % 50 == 0 ? 0 : rand.nextInt(4) == 0 ? -magnitude : magnitude;
+        }
+        return values;
+    }
+
+    @Test
+    void quantilesAreWithinRelativeAccuracy() {
+        double[] values = values(100_000, 1);
+        QuantileSketch sketch = new QuantileSketch();
+        for (double value : values) {
+            sketch.add(value);
+        }
+
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double q : QUANTILES) {
+            double exact = sorted[(int) (q * (sorted.length - 1))];
+            double error = Math.abs(sketch.quantile(q) - exact);
+            assertTrue(error <= QuantileSketch.DEFAULT_ACCURACY * Math.abs(exact) * (1 + 1e-9),
+                    "quantile " + q + ": " + sketch.quantile(q) + " instead of " + exact);
+        }
+    }
+
+    @Test
+    void mergedSketchEqualsSketchOfAllValues() {
+        double[] values = values(20_000, 2);
+        QuantileSketch all = new QuantileSketch();
+        QuantileSketch first = new QuantileSketch();
+        QuantileSketch second = new QuantileSketch();
+        for (int i = 0; i < values.length; ++i) {
+            all.add(values[i]);
+            (i % 3 == 0 ? first : second).add(values[i]);
+        }
+        first.merge(second);
+
+        assertEquals(all.getCount(), first.getCount());
+        for (double q : QUANTILES) {
+            assertEquals(all.quantile(q), first.quantile(q));
+        }
+    }
+
+    @Test
+    void emptySketchHasNoQuantiles() {
+        assertTrue(Double.isNaN(new QuantileSketch().quantile(0.5)));
+    }
+
+}
@@ -0,0 +1,51 @@
+package evolutionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.random.RandomGenerator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class RandomStreamsTest {
+
+    @Test
+    void streamDependsOnMasterSeedAndKeysOnly() throws Exception {
+        RandomStreams streams = new RandomStreams(42);
+        long[] expected = draw(streams.stream(RandomStreams.MUTATION, 3));
+
+        // Other streams created first, on another thread, or by another instance do not change it
+        streams.stream(RandomStreams.SELECTION, 3).nextLong();
+        assertArrayEquals(expected, draw(streams.stream(RandomStreams.MUTATION, 3)));
+        assertArrayEquals(expected, CompletableFuture.supplyAsync(
+                () -> draw(new RandomStreams(42).stream(RandomStreams.MUTATION, 3))).get());
+    }
+
+    @Test
+    void differentKeysGiveDifferentStreams() {
+        RandomStreams streams = new RandomStreams(42);
+
+        assertNotEquals(streams.seed(RandomStreams.MUTATION, 3), streams.seed(RandomStreams.MUTATION, 4));
+        assertNotEquals(streams.seed(RandomStreams.MUTATION, 3), streams.seed(RandomStreams.SELECTION, 3));
+        assertNotEquals(streams.seed(1, 2), streams.seed(2, 1));
+        assertNotEquals(streams.seed(RandomStreams.MUTATION), new RandomStreams(43).seed(RandomStreams.MUTATION));
+    }
+
+    @Test
+    void splitIsStreamsOfDerivedSeed() {
+        RandomStreams streams = new RandomStreams(42);
+
+        assertEquals(streams.seed(RandomStreams.RUN, 5), streams.split(RandomStreams.RUN, 5).getSeed());
+    }
+
+    private static long[] draw(RandomGenerator rand) {
+        long[] values = new long[16];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = rand.nextLong();
+        }
+        return values;
+    }
+
+}
@@ -0,0 +1,72 @@
+package evolutionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResultsRecorderTest {
+
+    @Test
+    void everyGenerationOfConcurrentArmsIsRecorded() throws IOException {
+        ExperimentGrid grid = new ExperimentGrid();
+        grid.addFunction(8, "Griewank");
+        grid.addPopulationSize(20, 30);
+        grid.setGenerations(100);
+        grid.setRuns(1);
+        ExperimentGrid.Cell cell = grid.cells().get(0);
+
+        ConcurrentLinkedQueue<ResultRecord> records = new ConcurrentLinkedQueue<>();
+        // Slow backend behind a queue of one record keeps recorder busy while the other arm publishes
+        ResultsBackend backend = new ResultsBackend() {
+            @Override
+            public void writeResults(List<ResultRecord> batch) {
+                records.addAll(batch);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void writeGenomes(List<GenomeRecord> genomes) {
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        try (ResultsSink sink = new ResultsSink(1, 1, backend)) {
+            ResultsRecorder recorder = new ResultsRecorder(sink, grid.cells(), 1);
+            Evolution evolution = new Evolution(cell.getMi(), cell.getChildrenCount(), cell.getDimension(),
+                    cell.getFuncNum(), cell.getRepeatNum(), cell.getMutationProbability(), 42);
+            evolution.setConcurrentArms(true);
+
+            recorder.runStarted(cell.getName(), 0, evolution);
+            evolution.performEvolution();
+        }
+
+        BitSet[] generations = new BitSet[]{new BitSet(), new BitSet(), new BitSet()};
+        for (ResultRecord record : records) {
+            generations[record.getArm()].set(record.getGeneration());
+        }
+        assertEquals(1, generations[ExperimentSummary.INITIAL].cardinality());
+        for (int arm = ExperimentSummary.WITH_WEDDING; arm <= ExperimentSummary.WITHOUT_WEDDING; ++arm) {
+            assertEquals(100, generations[arm].cardinality(), "arm " + arm);
+            assertEquals(1, generations[arm].nextSetBit(0), "arm " + arm);
+            assertEquals(100, generations[arm].length() - 1, "arm " + arm);
+        }
+        assertEquals(201, records.size());
+    }
+
+}
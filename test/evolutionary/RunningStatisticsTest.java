@@ -0,0 +1,94 @@
+package evolutionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RunningStatisticsTest {
+
+    @Test
+    void meanAndVarianceMatchTwoPassComputation() {
+        double[] values = QuantileSketchTest.values(100_000, 3);
+        RunningStatistics statistics = new RunningStatistics();
+        for (double value : values) {
+            statistics.add(value);
+        }
+
+        assertMatches(values, statistics);
+    }
+
+    @Test
+    void mergedStatisticsMatchSequentialOnes() {
+        double[] values = QuantileSketchTest.values(30_000, 4);
+        RunningStatistics merged = new RunningStatistics();
+        RunningStatistics[] parts = new RunningStatistics[]{new RunningStatistics(), new RunningStatistics(),
+                new RunningStatistics()};
+        for (int i = 0; i < values.length; ++i) {
+            parts[i % 3].add(values[i]);
+        }
+        for (RunningStatistics part : parts) {
+            merged.merge(part);
+        }
+
+        assertMatches(values, merged);
+    }
+
+    @Test
+    void stripedStatisticsFedByManyThreadsMatchSequentialOnes() throws InterruptedException {
+        double[] values = QuantileSketchTest.values(80_000, 5);
+        StripedStatistics striped = new StripedStatistics();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; ++t) {
+            int first = t;
+            threads.add(new Thread(() -> {
+                for (int i = first; i < values.length; i += 8) {
+                    striped.add(values[i]);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertMatches(values, striped.snapshot());
+    }
+
+    private static void assertMatches(double[] values, RunningStatistics statistics) {
+        double mean = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : values) {
+            mean += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        mean /= values.length;
+
+        double variance = 0;
+        for (double value : values) {
+            variance += (value - mean) * (value - mean);
+        }
+        variance /= values.length - 1;
+
+        RunningStatistics sequential = new RunningStatistics();
+        for (double value : values) {
+            sequential.add(value);
+        }
+
+        assertEquals(values.length, statistics.getCount());
+        assertEquals(mean, statistics.getMean(), 1e-9 * Math.sqrt(variance));
+        assertEquals(variance, statistics.getVariance(), 1e-9 * variance);
+        assertEquals(min, statistics.getMin());
+        assertEquals(max, statistics.getMax());
+        for (double q : new double[]{0.1, 0.5, 0.9}) {
+            assertEquals(sequential.getQuantile(q), statistics.getQuantile(q));
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+package evolutionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SelectionStrategyTest {
+    private static final double[] VALUES = new double[]{8, 1, 50, 3, 20, 2, 100, 5, 4, 10};
+    private static final int SAMPLES = 200000;
+
+    @Test
+    void rouletteFollowsInverseValues() {
+        assertProportional(new RouletteSelection(), 1000);
+    }
+
+    @Test
+    void aliasRouletteFollowsInverseValues() {
+        assertProportional(new AliasRouletteSelection(), 1000);
+    }
+
+    @Test
+    void stochasticUniversalSamplingFollowsInverseValues() {
+        assertProportional(new StochasticUniversalSampling(), 1000);
+    }
+
+    @Test
+    void stochasticUniversalSamplingChoosesEveryParentExpectedNumberOfTimes() {
+        SelectionStrategy selection = new StochasticUniversalSampling();
+        Random rand = new Random(1);
+        double[] share = shares();
+        int[] parents = new int[97];
+
+        // Spread of pointers is at most one step, so each count is its expectation rounded either way
+        for (int k = 0; k < 1000; ++k) {
+            assertEquals(parents.length, selection.select(VALUES, VALUES.length, parents.length, rand, parents));
+            int[] chosen = new int[VALUES.length];
+            for (int parent : parents) {
+                ++chosen[parent];
+            }
+            for (int i = 0; i < VALUES.length; ++i) {
+                double expected = share[i] * parents.length;
+                assertTrue(chosen[i] >= Math.floor(expected) && chosen[i] <= Math.ceil(expected),
+                        "individual " + i + " chosen " + chosen[i] + " times, expected " + expected);
+            }
+        }
+    }
+
+    @Test
+    void tournamentFollowsRanks() {
+        int tournamentSize = 3;
+        int[] chosen = sample(new TournamentSelection(tournamentSize), 1000);
+
+        // Individual of rank r (0 for the best) wins when all competitors are of rank r or worse, and not all worse
+        int n = VALUES.length;
+        for (int i = 0; i < n; ++i) {
+            int rank = 0;
+            for (double value : VALUES) {
+                if (value < VALUES[i]) {
+                    ++rank;
+                }
+            }
+            double expected = (Math.pow(n - rank, tournamentSize) - Math.pow(n - rank - 1, tournamentSize))
+                    / Math.pow(n, tournamentSize);
+            assertFrequency(expected, chosen[i], "individual " + i);
+
+            for (int j = 0; j < n; ++j) {
+                if (VALUES[j] < VALUES[i]) {
+                    assertTrue(chosen[j] > chosen[i], "individual " + j + " is better than " + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    void copyHasSameKindAndOwnBuffers() {
+        SelectionStrategy[] strategies = new SelectionStrategy[]{new RouletteSelection(), new AliasRouletteSelection(),
+                new StochasticUniversalSampling(), new TournamentSelection(2)};
+        for (SelectionStrategy strategy : strategies) {
+            SelectionStrategy copy = strategy.copy();
+            assertNotSame(strategy, copy);
+            assertSame(strategy.getClass(), copy.getClass());
+        }
+    }
+
+    private static void assertProportional(SelectionStrategy selection, int count) {
+        int[] chosen = sample(selection, count);
+        double[] share = shares();
+        for (int i = 0; i < VALUES.length; ++i) {
+            assertFrequency(share[i], chosen[i], "individual " + i);
+        }
+    }
+
+    /**
+     * Asserts that number of times out of all samples is within five standard deviations of expected probability.
+     */
+    private static void assertFrequency(double probability, int times, String message) {
+        double expected = probability * SAMPLES;
+        double deviation = Math.sqrt(SAMPLES * probability * (1 - probability));
+        assertTrue(Math.abs(times - expected) <= 5 * deviation,
+                message + " chosen " + times + " times, expected " + expected);
+    }
+
+    /**
+     * @return Number of times each individual was chosen in all samples, drawn by selections of given count.
+     */
+    private static int[] sample(SelectionStrategy selection, int count) {
+        Random rand = new Random(42);
+        int[] parents = new int[count];
+        int[] chosen = new int[VALUES.length];
+
+        for (int drawn = 0; drawn < SAMPLES; drawn += count) {
+            assertEquals(count, selection.select(VALUES, VALUES.length, count, rand, parents));
+            for (int parent : parents) {
+                ++chosen[parent];
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * @return Probability of each individual on roulette wheel, proportional to 1 / objective function value.
+     */
+    private static double[] shares() {
+        double sum = 0;
+        for (double value : VALUES) {
+            sum += 1 / value;
+        }
+        double[] share = new double[VALUES.length];
+        for (int i = 0; i < VALUES.length; ++i) {
+            share[i] = 1 / VALUES[i] / sum;
+        }
+        return share;
+    }
+
+}
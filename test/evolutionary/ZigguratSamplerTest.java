@@ -0,0 +1,100 @@
+package evolutionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZigguratSamplerTest {
+    private static final int COUNT = 1_000_000;
+
+    @Test
+    void momentsAndTailsMatchNormalDistribution() {
+        double[] sample = sample();
+        double mean = 0;
+        for (double value : sample) {
+            mean += value;
+        }
+        mean /= COUNT;
+
+        double m2 = 0;
+        double m4 = 0;
+        long beyondR = 0;
+        long beyond4 = 0;
+        for (double value : sample) {
+            double d = value - mean;
+            m2 += d * d;
+            m4 += d * d * d * d;
+            beyondR += Math.abs(value) > 3.442619855899 ? 1 : 0;
+            beyond4 += Math.abs(value) > 4 ? 1 : 0;
+        }
+        m2 /= COUNT;
+        m4 /= COUNT;
+
+        // Tolerances are about 5 standard errors of each estimate
+        assertEquals(0, mean, 5 / Math.sqrt(COUNT));
+        assertEquals(1, m2, 5 * Math.sqrt(2.0 / COUNT));
+        assertEquals(3, m4 / (m2 * m2), 5 * Math.sqrt(24.0 / COUNT));
+        assertTail(2 * (1 - cdf(3.442619855899)), beyondR);
+        assertTail(2 * (1 - cdf(4)), beyond4);
+    }
+
+    @Test
+    void distributionPassesKolmogorovSmirnovTest() {
+        double[] sample = sample();
+        Arrays.sort(sample);
+
+        double distance = 0;
+        for (int i = 0; i < COUNT; ++i) {
+            double f = cdf(sample[i]);
+            distance = Math.max(distance, Math.max((i + 1.0) / COUNT - f, f - (double) i / COUNT));
+        }
+
+        // Critical value at significance level 0.01
+        assertTrue(distance < 1.63 / Math.sqrt(COUNT), "KS distance " + distance);
+    }
+
+    @Test
+    void fillDrawsTheSameDeviatesAsNext() {
+        RandomGenerator a = generator();
+        RandomGenerator b = generator();
+        double[] filled = new double[10_000];
+        ZigguratSampler.fill(a, filled, 0, filled.length);
+
+        for (double value : filled) {
+            assertEquals(ZigguratSampler.next(b), value);
+        }
+    }
+
+    private static double[] sample() {
+        double[] sample = new double[COUNT];
+        ZigguratSampler.fill(generator(), sample, 0, COUNT);
+        return sample;
+    }
+
+    private static RandomGenerator generator() {
+        return RandomGeneratorFactory.of(RandomStreams.ALGORITHM).create(42);
+    }
+
+    private static void assertTail(double probability, long count) {
+        double expected = probability * COUNT;
+        assertEquals(expected, count, 5 * Math.sqrt(expected), "tail count");
+    }
+
+    /**
+     * Standard normal distribution function through complementary error function with relative error below 1.2e-7.
+     */
+    private static double cdf(double x) {
+        double z = Math.abs(x) / Math.sqrt(2);
+        double t = 1 / (1 + 0.5 * z);
+        double erfc = t * Math.exp(-z * z - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+                + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587
+                + t * (-0.82215223 + t * 0.17087277)))))))));
+        return x >= 0 ? 1 - 0.5 * erfc : 0.5 * erfc;
+    }
+
+}